@@ -0,0 +1,73 @@
+package com.example.project.benchmark;
+
+import com.example.project.enumiration.Role;
+import com.example.project.models.User;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.repository.UserRepository;
+import com.example.project.service.RefreshTokenService;
+import com.example.project.utils.JWTUtils;
+import com.example.project.utils.VerifiedTokenCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Объекты для бенчмарков, собранные без Spring-контекста так же, как их собирает приложение.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET = "benchmark-secret";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JWTUtils jwtUtils(int tokenCacheSize) {
+        Clock clock = Clock.systemUTC();
+        VerifiedTokenCache cache = new VerifiedTokenCache(clock);
+        ReflectionTestUtils.setField(cache, "maxSize", tokenCacheSize);
+
+        JWTUtils jwtUtils = new JWTUtils(clock, cache);
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "accessExpiredTime", Duration.ofMinutes(10));
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+        return jwtUtils;
+    }
+
+    static RefreshTokenService refreshTokenService(JWTUtils jwtUtils) {
+        RefreshTokenService service = new RefreshTokenService(Clock.systemUTC(), jwtUtils, userRepository());
+        ReflectionTestUtils.setField(service, "refreshExpiredTime", Duration.ofDays(30));
+        ReflectionTestUtils.setField(service, "bloomExpectedInsertions", 100_000L);
+        ReflectionTestUtils.setField(service, "bloomFalsePositiveProbability", 0.01);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    /**
+     * Репозиторий, который находит по id только {@link #user()}, как попадание в кэш второго уровня.
+     * Прокси вместо мока Mockito, чтобы стоимость заглушки не попадала в замер.
+     */
+    static UserRepository userRepository() {
+        User user = new User();
+        user.setId(user().getId());
+        user.setEmail(user().getUsername());
+        user.setRole(Role.USER);
+        Optional<User> found = Optional.of(user);
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findById") && user.getId().equals(args[0])) {
+                        return found;
+                    }
+                    if (method.getName().equals("findById")) {
+                        return Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static UserDetailsEntity user() {
+        return new UserDetailsEntity(42L, "executor@example.com", null, Role.USER.authorities());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.project.benchmark;
+
+import com.example.project.filter.JWTRequestFilter;
+import com.example.project.utils.JWTUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь аутентифицированного запроса через {@link JWTRequestFilter}. Запрос и ответ переиспользуются,
+ * поэтому профайлер gc показывает аллокации самого фильтра: для токена из кэша это разбор заголовка,
+ * поиск в кэше и контекст безопасности, без коллекций прав и сериализации.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JWTRequestFilterBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private JWTRequestFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest invalidTokenRequest;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JWTUtils jwtUtils = BenchmarkFixtures.jwtUtils(10_000);
+        filter = new JWTRequestFilter(jwtUtils, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/v1.0/tasks/executor");
+        request.addHeader("Authorization", "Bearer " + jwtUtils.generateAccessToken(BenchmarkFixtures.user()));
+        response = new MockHttpServletResponse();
+
+        invalidTokenRequest = new MockHttpServletRequest("GET", "/api/v1.0/tasks/executor");
+        invalidTokenRequest.addHeader("Authorization", "Bearer not-a-valid-token");
+    }
+
+    @Benchmark
+    public void authenticatedRequest() throws Exception {
+        filter.doFilter(request, response, NOOP_CHAIN);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void invalidTokenRequest() throws Exception {
+        response.reset();
+        filter.doFilter(invalidTokenRequest, response, NOOP_CHAIN);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.project.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.utils.JWTUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JWTUtilsBenchmark {
+
+    private JWTUtils cachingJwtUtils;
+    private JWTUtils nonCachingJwtUtils;
+    private UserDetailsEntity user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtils = BenchmarkFixtures.jwtUtils(10_000);
+        nonCachingJwtUtils = BenchmarkFixtures.jwtUtils(0);
+        user = BenchmarkFixtures.user();
+        token = cachingJwtUtils.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return cachingJwtUtils.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT validateToken() {
+        return cachingJwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public PreAuthenticatedAuthenticationToken getAuthenticationCached() {
+        return cachingJwtUtils.getAuthentication(token);
+    }
+
+    @Benchmark
+    public PreAuthenticatedAuthenticationToken getAuthenticationUncached() {
+        return nonCachingJwtUtils.getAuthentication(token);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.project.benchmark;
+
+import com.example.project.dto.TokenPairDTO;
+import com.example.project.service.RefreshTokenService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обмен refresh-токена: ротация, проверка отзыва и подпись нового access-токена, без BCrypt.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RefreshTokenServiceBenchmark {
+
+    private RefreshTokenService refreshTokenService;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        refreshTokenService = BenchmarkFixtures.refreshTokenService(BenchmarkFixtures.jwtUtils(0));
+        refreshToken = refreshTokenService.issue(BenchmarkFixtures.user()).refreshToken();
+    }
+
+    @Benchmark
+    public TokenPairDTO refresh() {
+        TokenPairDTO tokens = refreshTokenService.refresh(refreshToken);
+        refreshToken = tokens.refreshToken();
+        return tokens;
+    }
+}
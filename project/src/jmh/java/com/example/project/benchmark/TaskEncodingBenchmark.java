@@ -0,0 +1,137 @@
+package com.example.project.benchmark;
+
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кодирование и декодирование ответов в JSON, CBOR и Smile: страница задач из {@code /tasks/executor/cursor}
+ * и задача с комментариями из {@code /tasks/{id}}. Размеры тел (как есть и после gzip) попадают в результаты
+ * encode-бенчмарков вторичными метриками {@code bytes} и {@code gzipBytes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskEncodingBenchmark {
+
+    private static final TypeReference<CursorPageDTO<TaskSummaryDTO>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CursorPageDTO<TaskSummaryDTO> page;
+    private TaskDetailsDTO details;
+    private byte[] encodedPage;
+    private byte[] encodedDetails;
+    private int pageGzipSize;
+    private int detailsGzipSize;
+
+    /**
+     * Размер тела последнего закодированного ответа; JMH выводит поля как счетчики рядом со временем.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long bytes;
+        public long gzipBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        // Те же настройки, что у конвертеров в WebConfig
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+
+        List<TaskSummaryDTO> tasks = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            tasks.add(summary(id));
+        }
+        page = new CursorPageDTO<>(tasks, "AAAAAgAAAAAAAAAK", true, null);
+
+        List<CommentDTO> comments = new ArrayList<>();
+        for (long c = 1; c <= 5; c++) {
+            comments.add(new CommentDTO(100 + c, 1L, 2L,
+                    "Progress update " + c + ": waiting for the changelog from the backend team.",
+                    LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(c)));
+        }
+        details = new TaskDetailsDTO(summary(1), 42, comments);
+
+        encodedPage = objectMapper.writeValueAsBytes(page);
+        encodedDetails = objectMapper.writeValueAsBytes(details);
+        pageGzipSize = gzipSize(encodedPage);
+        detailsGzipSize = gzipSize(encodedDetails);
+    }
+
+    @Benchmark
+    public byte[] encodePage(PayloadSize size) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(page);
+        size.bytes = encoded.length;
+        size.gzipBytes = pageGzipSize;
+        return encoded;
+    }
+
+    @Benchmark
+    public CursorPageDTO<TaskSummaryDTO> decodePage() throws IOException {
+        return objectMapper.readValue(encodedPage, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public byte[] encodeDetails(PayloadSize size) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(details);
+        size.bytes = encoded.length;
+        size.gzipBytes = detailsGzipSize;
+        return encoded;
+    }
+
+    @Benchmark
+    public TaskDetailsDTO decodeDetails() throws IOException {
+        return objectMapper.readValue(encodedDetails, TaskDetailsDTO.class);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    private static int gzipSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static TaskSummaryDTO summary(long id) {
+        return new TaskSummaryDTO(id, "Prepare release notes #" + id,
+                "Collect merged changes, group them by component and describe user-visible behaviour.",
+                TaskStatus.IN_PROGRESS, (int) (id % 5), 1L, 2L, 3L);
+    }
+}
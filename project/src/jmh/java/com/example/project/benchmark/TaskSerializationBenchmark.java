@@ -0,0 +1,106 @@
+package com.example.project.benchmark;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.Role;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.models.Comment;
+import com.example.project.models.Task;
+import com.example.project.models.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация страницы задач: полный граф сущностей {@link Task} против плоского {@link TaskSummaryDTO}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"5"})
+    private int commentsPerTask;
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private Page<Task> entityPage;
+    private Page<TaskSummaryDTO> summaryPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        User author = user(1L, "author@example.com", Role.ADMIN);
+        User executor = user(2L, "executor@example.com", Role.USER);
+
+        List<Task> tasks = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            tasks.add(task(id, author, executor));
+        }
+        task = tasks.get(0);
+        entityPage = new PageImpl<>(tasks, PageRequest.of(0, pageSize), 10_000);
+        summaryPage = entityPage.map(TaskSummaryDTO::from);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws Exception {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeEntityPage() throws Exception {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    private Task task(long id, User author, User executor) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Prepare release notes #" + id);
+        task.setDescription("Collect merged changes, group them by component and describe user-visible behaviour.");
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setPriority((int) (id % 5));
+        task.setAuthor(author);
+        task.setExecutor(executor);
+
+        List<Comment> comments = new ArrayList<>(commentsPerTask);
+        for (long c = 1; c <= commentsPerTask; c++) {
+            Comment comment = new Comment();
+            comment.setId(id * 100 + c);
+            comment.setTask(task);
+            comment.setAuthor(executor);
+            comment.setContent("Progress update " + c + ": waiting for the changelog from the backend team.");
+            comment.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(c));
+            comments.add(comment);
+        }
+        task.setComments(comments);
+        return task;
+    }
+
+    private User user(long id, String email, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z7Yp9Hn9Lh1u0Y8pQnpRVy4K");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.project.benchmark;
+
+import com.example.project.filter.UserAuthenticationFilter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор тела запроса на вход. AuthenticationManager заменен заглушкой, чтобы BCrypt не заслонял разбор JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UserAuthenticationFilterBenchmark {
+
+    private static final byte[] LOGIN_BODY =
+            "{\"email\":\"executor@example.com\",\"password\":\"secret-password\"}".getBytes(StandardCharsets.UTF_8);
+
+    private UserAuthenticationFilter filter;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        filter = new UserAuthenticationFilter(BenchmarkFixtures.refreshTokenService(BenchmarkFixtures.jwtUtils(0)));
+        filter.setAuthenticationManager(authentication -> authentication);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication attemptAuthentication() {
+        // Тело запроса читается один раз, поэтому запрос создается на каждой итерации.
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1.0/login");
+        request.setContentType("application/json");
+        request.setContent(LOGIN_BODY);
+        return filter.attemptAuthentication(request, response);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.project.loadtest;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Собирает длительности запросов по эндпоинтам и считает пропускную способность и перцентили.
+ * Использует ReentrantLock, а не synchronized, чтобы не закреплять виртуальные потоки клиента на носителях.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean success) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, success);
+    }
+
+    public List<EndpointStats> summarize(double seconds) {
+        return samples.entrySet().stream()
+                .map(entry -> entry.getValue().summarize(entry.getKey(), seconds))
+                .sorted(Comparator.comparing(EndpointStats::endpoint))
+                .toList();
+    }
+
+    public record EndpointStats(String endpoint, long requests, long errors, double throughput,
+                                double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        public double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %8d req %6d err %9.1f req/s  p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms  max %8.2f ms",
+                    endpoint, requests, errors, throughput, p50Ms, p95Ms, p99Ms, maxMs);
+        }
+    }
+
+    private static final class Samples {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value, boolean success) {
+            lock.lock();
+            try {
+                if (size == nanos.length) {
+                    nanos = Arrays.copyOf(nanos, size * 2);
+                }
+                nanos[size++] = value;
+                if (!success) {
+                    errors++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        EndpointStats summarize(String endpoint, double seconds) {
+            long[] sorted;
+            long errorCount;
+            lock.lock();
+            try {
+                sorted = Arrays.copyOf(nanos, size);
+                errorCount = errors;
+            } finally {
+                lock.unlock();
+            }
+            Arrays.sort(sorted);
+            int count = sorted.length;
+            return new EndpointStats(endpoint, count, errorCount, count / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / 1_000_000.0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+        }
+    }
+}
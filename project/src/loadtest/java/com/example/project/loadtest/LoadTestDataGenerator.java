@@ -0,0 +1,184 @@
+package com.example.project.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+/**
+ * Заполняет базу синтетическими пользователями, задачами и комментариями через COPY.
+ *
+ * <p>Данные детерминированы: пользователь {@code i} имеет email {@code user<i>@load.test}, первые
+ * {@link #adminCount()} пользователей — администраторы, исполнитель задачи {@code t} вычисляется
+ * {@link #executorOf(long)}. Поэтому нагрузочный тест знает владельцев задач без дополнительных запросов.
+ * Пароль у всех одинаковый, BCrypt-хеш считается один раз.
+ */
+@Slf4j
+public class LoadTestDataGenerator {
+
+    public static final String PASSWORD = "load-test-password";
+
+    private static final int CHUNK_ROWS = 50_000;
+
+    private static final String[] VERBS = {
+            "Prepare", "Review", "Migrate", "Document", "Refactor", "Deploy", "Investigate", "Optimize", "Test", "Design"
+    };
+    private static final String[] NOUNS = {
+            "invoice", "report", "billing", "gateway", "dashboard", "release", "backup", "search", "profile", "checkout",
+            "payment", "catalog", "schedule", "export", "import", "warehouse", "onboarding", "analytics", "mobile", "cache"
+    };
+    private static final String[] STATUSES = {"NEW", "IN_PROGRESS", "COMPLETED"};
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DataSource dataSource;
+    private final long users;
+    private final long tasks;
+    private final long comments;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    public LoadTestDataGenerator(DataSource dataSource, long users, long tasks, long comments) {
+        if (users < 2) {
+            throw new IllegalArgumentException("At least two users are required");
+        }
+        this.dataSource = dataSource;
+        this.users = users;
+        this.tasks = tasks;
+        this.comments = comments;
+    }
+
+    public void generate() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("truncate table comments, tasks, users restart identity cascade");
+            }
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copyUsers(copy);
+            copyTasks(copy);
+            copyComments(copy);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("select setval(pg_get_serial_sequence('users', 'id'), " + users + ")");
+                statement.execute("select setval('tasks_seq', " + Math.max(tasks, 1) + ")");
+                statement.execute("select setval('comments_seq', " + Math.max(comments, 1) + ")");
+            }
+            connection.commit();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze users");
+                statement.execute("analyze tasks");
+                statement.execute("analyze comments");
+            }
+        }
+        log.info("Seeded {} users, {} tasks, {} comments in {} ms",
+                users, tasks, comments, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public long users() {
+        return users;
+    }
+
+    public long tasks() {
+        return tasks;
+    }
+
+    public long adminCount() {
+        return Math.max(1, users / 100);
+    }
+
+    public static String email(long userId) {
+        return "user" + userId + "@load.test";
+    }
+
+    /**
+     * Исполнитель задачи: задачи равномерно распределены между всеми пользователями.
+     */
+    public long executorOf(long taskId) {
+        return (taskId - 1) % users + 1;
+    }
+
+    /**
+     * Случайная задача, исполнителем которой является указанный пользователь.
+     */
+    public long taskOf(long executorId, SplittableRandom random) {
+        long perExecutor = (tasks - executorId) / users + 1;
+        return executorId + random.nextLong(perExecutor) * users;
+    }
+
+    public static String searchTerm(SplittableRandom random) {
+        return NOUNS[random.nextInt(NOUNS.length)];
+    }
+
+    private void copyUsers(CopyManager copy) throws SQLException {
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        long admins = adminCount();
+        copyChunks(copy, "copy users (id, email, password, role) from stdin", users, (id, row) -> row
+                .append(id).append('\t')
+                .append(email(id)).append('\t')
+                .append(hash).append('\t')
+                .append(id <= admins ? "ADMIN" : "USER"));
+    }
+
+    private void copyTasks(CopyManager copy) throws SQLException {
+        long admins = adminCount();
+        copyChunks(copy, "copy tasks (id, title, description, status, priority, version, author_id, executor_id) from stdin",
+                tasks, (id, row) -> row
+                        .append(id).append('\t')
+                        .append(VERBS[random.nextInt(VERBS.length)]).append(' ')
+                        .append(NOUNS[random.nextInt(NOUNS.length)]).append(' ')
+                        .append(NOUNS[random.nextInt(NOUNS.length)]).append(" #").append(id).append('\t')
+                        .append(sentence()).append(' ').append(sentence()).append('\t')
+                        .append(STATUSES[random.nextInt(STATUSES.length)]).append('\t')
+                        .append(random.nextInt(5)).append('\t')
+                        .append(0).append('\t')
+                        .append(random.nextLong(admins) + 1).append('\t')
+                        .append(executorOf(id)));
+    }
+
+    private void copyComments(CopyManager copy) throws SQLException {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        copyChunks(copy, "copy comments (id, task_id, author_id, content, created_at) from stdin", comments, (id, row) -> {
+            long taskId = random.nextLong(tasks) + 1;
+            row.append(id).append('\t')
+                    .append(taskId).append('\t')
+                    .append(executorOf(taskId)).append('\t')
+                    .append(sentence()).append('\t')
+                    .append(TIMESTAMP.format(base.plusSeconds(id * 7)));
+        });
+    }
+
+    private String sentence() {
+        return VERBS[random.nextInt(VERBS.length)] + " the " + NOUNS[random.nextInt(NOUNS.length)]
+                + " for the " + NOUNS[random.nextInt(NOUNS.length)] + " team.";
+    }
+
+    private void copyChunks(CopyManager copy, String sql, long rows, RowWriter writer) throws SQLException {
+        StringBuilder chunk = new StringBuilder(CHUNK_ROWS * 128);
+        try {
+            for (long id = 1; id <= rows; id++) {
+                writer.write(id, chunk);
+                chunk.append('\n');
+                if (id % CHUNK_ROWS == 0 || id == rows) {
+                    copy.copyIn(sql, new StringReader(chunk.toString()));
+                    chunk.setLength(0);
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(long id, StringBuilder row);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.project.loadtest;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * База для тестов из src/loadtest: PostgreSQL 16 в Testcontainers (один контейнер на JVM) или локальная
+ * по {@code -Dloadtest.jdbc-url}. Схема пересоздается при каждом запуске: Flyway очищает базу и применяет
+ * все миграции, поэтому тесты проверяют ту же схему, что получит рабочая база.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class LoadTestDatabase {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    public static synchronized void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.flyway.clean-disabled", () -> "false");
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.jdbc-username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.jdbc-password", "postgres"));
+            return;
+        }
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        }
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Bean
+    FlywayMigrationStrategy cleanMigrateStrategy() {
+        return flyway -> {
+            flyway.clean();
+            flyway.migrate();
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.project.loadtest;
+
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.enumiration.TaskSortKey;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.repository.CommentsRepository;
+import com.example.project.repository.TasksRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов запросов репозиториев на заполненной базе.
+ *
+ * <p>Каждый запрос выполняется через репозиторий, его SQL перехватывается {@link RecordingStatementInspector}
+ * и разбирается {@code EXPLAIN (GENERIC_PLAN)} — план для произвольных значений параметров (PostgreSQL 16+).
+ * Тест падает, если в плане есть Seq Scan по большой таблице: значит, запросу не хватает индекса
+ * из миграций. Запросы, которые по смыслу читают таблицу целиком (выгрузка, статистика), сюда не входят.
+ *
+ * <p>Запуск: {@code ./mvnw -Ploadtest verify -Dit.test=QueryPlanIT}; объем данных — {@code loadtest.plan.*}.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.project.loadtest.RecordingStatementInspector",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+@Import(LoadTestDatabase.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIT {
+
+    private static final Set<String> LARGE_TABLES = Set.of("tasks", "comments", "users");
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TasksRepository tasksRepository;
+
+    @Autowired
+    private CommentsRepository commentsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        LoadTestDatabase.register(registry);
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        new LoadTestDataGenerator(dataSource,
+                Long.parseLong(System.getProperty("loadtest.plan.users", "20000")),
+                Long.parseLong(System.getProperty("loadtest.plan.tasks", "500000")),
+                Long.parseLong(System.getProperty("loadtest.plan.comments", "500000"))).generate();
+        new JdbcTemplate(dataSource).execute("analyze");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("TasksRepository.findByAuthorId", () -> tasksRepository.findByAuthorId(1L, PAGE));
+        queries.put("TasksRepository.findByExecutorId", () -> tasksRepository.findByExecutorId(1L, PAGE));
+        queries.put("TasksRepository.findByTitleContainingIgnoreCase", () -> tasksRepository.findByTitleContainingIgnoreCase("invoice", PAGE));
+        queries.put("TasksRepository.findSummaryById", () -> tasksRepository.findSummaryById(1L));
+        queries.put("TasksRepository.findSummariesByIdIn", () -> tasksRepository.findSummariesByIdIn(List.of(1L, 2L, 3L)));
+        queries.put("TasksRepository.countByAuthorId", () -> tasksRepository.countByAuthorId(1L));
+        queries.put("TasksRepository.countByExecutorId", () -> tasksRepository.countByExecutorId(1L));
+        queries.put("TasksRepository.countByTitleContainingIgnoreCase", () -> tasksRepository.countByTitleContainingIgnoreCase("invoice"));
+        queries.put("TasksRepository.fingerprintByAuthorId", () -> tasksRepository.fingerprintByAuthorId(1L));
+        queries.put("TasksRepository.fingerprintByExecutorId", () -> tasksRepository.fingerprintByExecutorId(1L));
+        queries.put("TasksRepository.fingerprintDetailsById", () -> tasksRepository.fingerprintDetailsById(1L));
+        queries.put("TasksRepository.findFirstKeysetByAuthorId", () -> tasksRepository.findFirstKeysetByAuthorId(1L, PAGE));
+        queries.put("TasksRepository.findKeysetByAuthorIdAfter", () -> tasksRepository.findKeysetByAuthorIdAfter(1L, 2, 100L, PAGE));
+        queries.put("TasksRepository.findFirstKeysetByExecutorId", () -> tasksRepository.findFirstKeysetByExecutorId(1L, PAGE));
+        queries.put("TasksRepository.findKeysetByExecutorIdAfter", () -> tasksRepository.findKeysetByExecutorIdAfter(1L, 2, 100L, PAGE));
+        queries.put("TasksRepository.findFirstKeysetByTitleContainingIgnoreCase", () -> tasksRepository.findFirstKeysetByTitleContainingIgnoreCase("invoice", PAGE));
+        queries.put("TasksRepository.findKeysetByTitleContainingIgnoreCaseAfter", () -> tasksRepository.findKeysetByTitleContainingIgnoreCaseAfter("invoice", 2, 100L, PAGE));
+        TaskQueryDTO byStatusAndPriority = new TaskQueryDTO(Set.of(TaskStatus.NEW), 1, 3, null, null, null, TaskSortKey.PRIORITY);
+        TaskQueryDTO byExecutorAndStatus = new TaskQueryDTO(Set.of(TaskStatus.IN_PROGRESS), null, null, null, 1L, null, TaskSortKey.PRIORITY);
+        TaskQueryDTO byAuthorSortedById = new TaskQueryDTO(null, 2, null, 1L, null, null, TaskSortKey.ID);
+        TaskQueryDTO byTitle = new TaskQueryDTO(null, null, null, null, null, "invoice", TaskSortKey.PRIORITY);
+        queries.put("TasksRepository.findByQuery(status, priority)", () -> tasksRepository.findByQuery(byStatusAndPriority, null, 11));
+        queries.put("TasksRepository.findByQuery(status, priority, after)", () -> tasksRepository.findByQuery(byStatusAndPriority, new long[]{2, 100L}, 11));
+        queries.put("TasksRepository.findByQuery(executor, status, after)", () -> tasksRepository.findByQuery(byExecutorAndStatus, new long[]{2, 100L}, 11));
+        queries.put("TasksRepository.findByQuery(author, sort=id, after)", () -> tasksRepository.findByQuery(byAuthorSortedById, new long[]{100L}, 11));
+        queries.put("TasksRepository.findByQuery(title)", () -> tasksRepository.findByQuery(byTitle, null, 11));
+        queries.put("TasksRepository.countByQuery(status, priority)", () -> tasksRepository.countByQuery(byStatusAndPriority));
+        queries.put("TasksRepository.patchStatusAndPriority", () -> tasksRepository.patchStatusAndPriority(1L, -1L, true, "NEW", false, 0));
+        queries.put("CommentsRepository.findFirstKeysetByTaskId", () -> commentsRepository.findFirstKeysetByTaskId(1L, PAGE));
+        queries.put("CommentsRepository.findKeysetByTaskIdBefore", () -> commentsRepository.findKeysetByTaskIdBefore(1L, now, 100L, PAGE));
+        queries.put("CommentsRepository.countByTaskId", () -> commentsRepository.countByTaskId(1L));
+        queries.put("CommentsRepository.deleteByTaskId", () -> commentsRepository.deleteByTaskId(-1L));
+
+        return queries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            List<String> statements = capture(query.getValue());
+            assertFalse(statements.isEmpty(), "No SQL captured");
+            for (String sql : statements) {
+                JsonNode plan = explain(sql);
+                List<String> seqScans = new ArrayList<>();
+                collectSeqScans(plan, seqScans);
+                log.info("{}: {}", query.getKey(), plan);
+                assertTrue(seqScans.isEmpty(), () -> query.getKey() + " scans " + seqScans + " sequentially:\n" + sql + "\n" + plan.toPrettyString());
+            }
+        }));
+    }
+
+    /**
+     * Выполняет запрос в транзакции, которая затем откатывается, и возвращает отправленный SQL.
+     */
+    private List<String> capture(Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements;
+        RecordingStatementInspector.start();
+        try {
+            transaction.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+        return statements;
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        // Параметры JDBC (?) становятся $1..$n: GENERIC_PLAN выводит их типы из контекста.
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String json = new JdbcTemplate(dataSource)
+                .queryForObject("explain (generic_plan, format json) " + numbered, String.class);
+        return objectMapper.readTree(json).get(0).get("Plan");
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && LARGE_TABLES.contains(node.path("Relation Name").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+}
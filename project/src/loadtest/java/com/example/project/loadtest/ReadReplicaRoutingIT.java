@@ -0,0 +1,113 @@
+package com.example.project.loadtest;
+
+import com.example.project.datasource.ReplicaRouter;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.dto.UserDTO;
+import com.example.project.enumiration.Role;
+import com.example.project.service.TaskService;
+import com.example.project.service.UserService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Разделение чтения и записи на двух базах: вторая база изображает реплику (репликации между ними нет,
+ * поэтому по данным видно, откуда пришел ответ). Схему реплики создают те же миграции.
+ *
+ * <p>Запуск: {@code ./mvnw -Ploadtest verify -Dit.test=ReadReplicaRoutingIT}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO",
+        "app.datasource.replica.health-check-interval=PT1H"
+})
+@Import(LoadTestDatabase.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingIT {
+
+    private static final String REPLICA_ONLY_TITLE = "Exists only on the replica";
+
+    private static PostgreSQLContainer<?> replica;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
+
+    @DynamicPropertySource
+    static void datasources(DynamicPropertyRegistry registry) {
+        LoadTestDatabase.register(registry);
+        replica = new PostgreSQLContainer<>("postgres:16-alpine");
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load()
+                .migrate();
+        registry.add("app.datasource.replica.urls", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+    }
+
+    @AfterAll
+    static void stopReplica() {
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyServiceCallsReadFromReplicaAndWritesGoToPrimary() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        replicaJdbc.update("insert into users (id, email, password, role) values (1, 'replica@load.test', 'x', 'USER')");
+        replicaJdbc.update("insert into tasks (id, title, priority, version, author_id) values (1, ?, 1, 0, 1)", REPLICA_ONLY_TITLE);
+
+        assertTrue(taskService.findAllTasks().stream().map(TaskSummaryDTO::title).anyMatch(REPLICA_ONLY_TITLE::equals));
+
+        UserDTO user = new UserDTO();
+        user.setEmail("primary@load.test");
+        user.setPassword("password");
+        user.setRole(Role.USER);
+        userService.addUser(user);
+
+        // Вне транзакции JdbcTemplate идет в основную базу.
+        assertEquals(1, new JdbcTemplate(dataSource).queryForObject(
+                "select count(*) from users where email = 'primary@load.test'", Integer.class));
+        assertEquals(0, replicaJdbc.queryForObject(
+                "select count(*) from users where email = 'primary@load.test'", Integer.class));
+        assertTrue(replicaRouter.getReplicaReads() > 0);
+    }
+
+    @Test
+    @Order(2)
+    void readsFailOverToPrimaryWhenReplicaIsDown() {
+        replica.stop();
+        replicaRouter.checkReplicas();
+
+        assertTrue(taskService.findAllTasks().stream().map(TaskSummaryDTO::title).noneMatch(REPLICA_ONLY_TITLE::equals));
+        assertFalse(replicaRouter.isAvailable(replicaRouter.getReplicas().get(0)));
+    }
+}
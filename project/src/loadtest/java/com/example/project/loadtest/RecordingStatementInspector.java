@@ -0,0 +1,37 @@
+package com.example.project.loadtest;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает SQL, который Hibernate отправляет в базу, пока включена запись. Подключается свойством
+ * {@code hibernate.session_factory.statement_inspector}; Hibernate создает экземпляр сам, поэтому
+ * буфер статический.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> RECORDED = new ArrayList<>();
+    private static volatile boolean recording;
+
+    public static synchronized void start() {
+        RECORDED.clear();
+        recording = true;
+    }
+
+    public static synchronized List<String> stop() {
+        recording = false;
+        return List.copyOf(RECORDED);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            synchronized (RecordingStatementInspector.class) {
+                RECORDED.add(sql);
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.project.loadtest;
+
+import com.example.project.search.TaskSearchIndexLoader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест REST API на синтетических данных.
+ *
+ * <p>Запуск: {@code ./mvnw -Ploadtest verify}. По умолчанию база поднимается в Testcontainers; чтобы
+ * использовать локальный PostgreSQL, задайте {@code -Dloadtest.jdbc-url=...} (схема в этой базе
+ * пересоздается миграциями, см. {@link LoadTestDatabase}). Объем данных, конкурентность, длительность
+ * и пороги задаются свойствами {@code loadtest.*}, см. README. Отчет пишется в {@code target/loadtest-report.json}.
+ *
+ * <p>{@code -Dloadtest.concurrency=1000,5000,10000} прогоняет несколько уровней подряд; запуск с
+ * {@code -Dspring.threads.virtual.enabled=true} и без него сравнивает виртуальные потоки с пулом Tomcat.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO",
+        "server.tomcat.max-connections=20000",
+        "server.tomcat.accept-count=2000"
+})
+@Import(LoadTestDatabase.class)
+class TaskApiLoadIT {
+
+    private static final String API = "/api/v1.0/";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TaskSearchIndexLoader taskSearchIndexLoader;
+
+    @Autowired
+    private Environment environment;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Long, String> tokens = new ConcurrentHashMap<>();
+    private final AtomicBoolean recording = new AtomicBoolean();
+    private volatile LatencyRecorder recorder;
+
+    private LoadTestDataGenerator data;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        LoadTestDatabase.register(registry);
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinLatencyThresholds() throws Exception {
+        data = new LoadTestDataGenerator(dataSource,
+                Long.parseLong(property("loadtest.users", "10000")),
+                Long.parseLong(property("loadtest.tasks", "200000")),
+                Long.parseLong(property("loadtest.comments", "400000")));
+        data.generate();
+        // Индекс поиска загружается при старте, когда база еще пуста.
+        taskSearchIndexLoader.load();
+
+        Duration warmup = Duration.parse(property("loadtest.warmup", "PT10S"));
+        Duration duration = Duration.parse(property("loadtest.duration", "PT60S"));
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        List<LevelReport> reports = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        for (String level : property("loadtest.concurrency", "32").split(",")) {
+            int concurrency = Integer.parseInt(level.trim());
+            List<LatencyRecorder.EndpointStats> stats = runLevel(concurrency, warmup, duration);
+            log.info("Concurrency {} (virtual threads: {})", concurrency, virtualThreads);
+            stats.forEach(endpoint -> log.info("{}", endpoint));
+            reports.add(new LevelReport(concurrency, virtualThreads, stats));
+            checkThresholds(stats).forEach(violation -> violations.add(concurrency + " clients, " + violation));
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File("target/loadtest-report.json"), reports);
+
+        assertTrue(violations.isEmpty(), "Load test thresholds exceeded:\n" + String.join("\n", violations));
+    }
+
+    /**
+     * Один уровень нагрузки: {@code concurrency} виртуальных пользователей, каждый на своем виртуальном
+     * потоке клиента, чтобы клиент не ограничивал нагрузку при тысячах соединений.
+     */
+    private List<LatencyRecorder.EndpointStats> runLevel(int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        recorder = new LatencyRecorder();
+        recording.set(false);
+        long deadline = System.nanoTime() + warmup.plus(duration).toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long seed = i;
+                workers.submit(() -> runVirtualUser(new SplittableRandom(seed), deadline));
+            }
+            Thread.sleep(warmup.toMillis());
+            recording.set(true);
+            workers.shutdown();
+            assertTrue(workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS), "Load workers did not finish");
+        }
+        return recorder.summarize(duration.toMillis() / 1000.0);
+    }
+
+    /**
+     * Один виртуальный пользователь: вход под случайным исполнителем и смесь чтений и изменений его задач.
+     * Небольшая доля операций выполняется под администратором.
+     */
+    private void runVirtualUser(SplittableRandom random, long deadline) {
+        try {
+            long maxExecutor = Math.min(data.users(), data.tasks());
+            long userId = data.adminCount() + 1 + random.nextLong(maxExecutor - data.adminCount());
+            long adminId = 1 + random.nextLong(data.adminCount());
+            String token = token(userId);
+            String adminToken = token(adminId);
+
+            while (System.nanoTime() < deadline) {
+                try {
+                    token = runOperation(random, userId, adminId, token, adminToken);
+                } catch (IOException e) {
+                    // Уже учтено как ошибка эндпоинта в execute.
+                    log.debug("Request failed", e);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Virtual user stopped", e);
+        }
+    }
+
+    /**
+     * Выполняет одну случайную операцию смеси и возвращает актуальный токен пользователя.
+     */
+    private String runOperation(SplittableRandom random, long userId, long adminId, String token, String adminToken)
+            throws Exception {
+        int operation = random.nextInt(100);
+        long taskId = data.taskOf(userId, random);
+        if (operation < 25) {
+            get("tasks-executor", token, "tasks/executor?executorId=" + userId + "&page=" + random.nextInt(4));
+        } else if (operation < 40) {
+            JsonNode page = get("tasks-executor-cursor", token, "tasks/executor/cursor?executorId=" + userId);
+            if (page != null && page.path("hasNext").asBoolean()) {
+                get("tasks-executor-cursor", token, "tasks/executor/cursor?executorId=" + userId
+                        + "&after=" + encode(page.path("nextCursor").asText()));
+            }
+        } else if (operation < 50) {
+            get("tasks-author", token, "tasks/author?authorId=" + adminId + "&page=" + random.nextInt(50));
+        } else if (operation < 65) {
+            get("tasks-title", token, "tasks/title?title=" + LoadTestDataGenerator.searchTerm(random));
+        } else if (operation < 80) {
+            String status = random.nextBoolean() ? "IN_PROGRESS" : "COMPLETED";
+            send("task-status", token, "POST", taskId + "/status?executorId=" + userId + "&status=" + status);
+        } else if (operation < 95) {
+            send("task-comment", token, "POST", taskId + "/comments?executorId=" + userId
+                    + "&comment=" + encode("Load test comment " + random.nextInt()));
+        } else if (operation < 98) {
+            send("admin-task-priority", adminToken, "PUT", "updateTaskPriority/" + taskId + "/"
+                    + adminId + "?priority=" + random.nextInt(5));
+        } else {
+            token = login(userId);
+            tokens.put(userId, token);
+        }
+        return token;
+    }
+
+    private String token(long userId) throws Exception {
+        String token = tokens.get(userId);
+        if (token == null) {
+            token = login(userId);
+            tokens.put(userId, token);
+        }
+        return token;
+    }
+
+    private String login(long userId) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "email", LoadTestDataGenerator.email(userId),
+                "password", LoadTestDataGenerator.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(uri("login")).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<byte[]> response = execute("login", request);
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for user " + userId + ": " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("access_token").asText();
+    }
+
+    private JsonNode get(String endpoint, String token, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = execute(endpoint, request);
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private void send(String endpoint, String token, String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        execute(endpoint, request);
+    }
+
+    private HttpResponse<byte[]> execute(String endpoint, HttpRequest request) throws Exception {
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            if (recording.get()) {
+                recorder.record(endpoint, System.nanoTime() - started, false);
+            }
+            throw e;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (recording.get()) {
+            recorder.record(endpoint, elapsed, response.statusCode() < 400);
+        }
+        return response;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + API + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Пороги: {@code loadtest.threshold.p95-ms}, {@code loadtest.threshold.p99-ms} и
+     * {@code loadtest.threshold.error-rate} для всех эндпоинтов, с переопределением для отдельного
+     * эндпоинта, например {@code loadtest.threshold.login.p99-ms}.
+     */
+    private static List<String> checkThresholds(List<LatencyRecorder.EndpointStats> stats) {
+        List<String> violations = new ArrayList<>();
+        for (LatencyRecorder.EndpointStats endpoint : stats) {
+            double p95 = threshold(endpoint.endpoint(), "p95-ms", "250");
+            double p99 = threshold(endpoint.endpoint(), "p99-ms", "1000");
+            double errorRate = threshold(endpoint.endpoint(), "error-rate", "0.01");
+            if (endpoint.p95Ms() > p95) {
+                violations.add(endpoint.endpoint() + ": p95 " + endpoint.p95Ms() + " ms > " + p95 + " ms");
+            }
+            if (endpoint.p99Ms() > p99) {
+                violations.add(endpoint.endpoint() + ": p99 " + endpoint.p99Ms() + " ms > " + p99 + " ms");
+            }
+            if (endpoint.errorRate() > errorRate) {
+                violations.add(endpoint.endpoint() + ": error rate " + endpoint.errorRate() + " > " + errorRate);
+            }
+        }
+        return violations;
+    }
+
+    private static double threshold(String endpoint, String metric, String defaultValue) {
+        String global = property("loadtest.threshold." + metric, defaultValue);
+        return Double.parseDouble(property("loadtest.threshold." + endpoint + "." + metric, global));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+
+    private record LevelReport(int concurrency, boolean virtualThreads, List<LatencyRecorder.EndpointStats> endpoints) {
+    }
+}
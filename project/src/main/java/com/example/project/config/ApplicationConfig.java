@@ -3,17 +3,17 @@ package com.example.project.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Clock;
-import java.time.Instant;
-import java.time.ZoneId;
 
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 
     @Bean
     public Clock clock() {
-        return Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        return Clock.systemDefaultZone();
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.example.project.config;
+
+import com.example.project.datasource.BulkheadDataSource;
+import com.example.project.utils.VerifiedTokenCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Метрики приложения сверх автоконфигурации Spring Boot (HTTP, HikariCP, Hibernate):
+ * таймеры методов с {@code @Timed}, счетчики кэша проверенных токенов и ограничителя соединений с БД.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache cache) {
+        return registry -> {
+            FunctionCounter.builder("security.jwt.cache.requests", cache, c -> c.stats().hits())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("security.jwt.cache.requests", cache, c -> c.stats().misses())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("security.jwt.cache.evictions", cache, c -> c.stats().evictions())
+                    .register(registry);
+            Gauge.builder("security.jwt.cache.size", cache, c -> c.stats().size())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof BulkheadDataSource bulkhead)) {
+                return;
+            }
+            Gauge.builder("datasource.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                    .register(registry);
+            Gauge.builder("datasource.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingThreads)
+                    .register(registry);
+            FunctionCounter.builder("datasource.bulkhead.rejections", bulkhead, BulkheadDataSource::getRejections)
+                    .register(registry);
+        };
+    }
+}
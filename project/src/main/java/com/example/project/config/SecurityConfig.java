@@ -2,7 +2,11 @@ package com.example.project.config;
 
 import com.example.project.filter.JWTRequestFilter;
 import com.example.project.filter.UserAuthenticationFilter;
+import com.example.project.service.RefreshTokenService;
+import com.example.project.utils.BoundedPasswordEncoder;
 import com.example.project.utils.JWTUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +21,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import java.time.Duration;
+
 import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.security.config.Customizer.withDefaults;
 
@@ -31,23 +37,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserAuthenticationFilter userAuthenticationFilter(AuthenticationManager authenticationManager, JWTUtils jwtUtils) {
-        UserAuthenticationFilter userAuthenticationFilter = new UserAuthenticationFilter(jwtUtils);
+    public UserAuthenticationFilter userAuthenticationFilter(AuthenticationManager authenticationManager,
+                                                             RefreshTokenService refreshTokenService) {
+        UserAuthenticationFilter userAuthenticationFilter = new UserAuthenticationFilter(refreshTokenService);
         userAuthenticationFilter.setRequiresAuthenticationRequestMatcher(AntPathRequestMatcher.antMatcher(POST, "/api/v1.0/login"));
         userAuthenticationFilter.setAuthenticationManager(authenticationManager);
         return userAuthenticationFilter;
     }
 
 
+    /**
+     * BCrypt на отдельном пуле размером в число ядер: вход и регистрация не занимают потоки запросов,
+     * а при переполнении очереди сразу получают 503.
+     */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout:5s}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeout, meterRegistry);
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, UserAuthenticationFilter filter,
                                                    UserDetailsService userDetailsService,
-                                                   JWTUtils jwtUtils
+                                                   JWTUtils jwtUtils,
+                                                   MeterRegistry meterRegistry
     ) throws Exception {
         http
                 .cors(withDefaults())
@@ -55,13 +72,18 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizeRequests -> authorizeRequests
                         .requestMatchers(
                                 "/api/v1.0/register",
+                                "/api/v1.0/token/refresh",
+                                "/api/v1.0/logout",
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
-                                "/v3/api-docs/**"
+                                "/v3/api-docs/**",
+                                "/actuator/health"
                         ).permitAll()
+                        // Метрики раскрывают внутренние имена, объемы и нагрузку, поэтому только для администратора
+                        .requestMatchers("/actuator/prometheus").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 .addFilter(filter)
-                .addFilterAfter(new JWTRequestFilter(jwtUtils), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new JWTRequestFilter(jwtUtils, meterRegistry), UsernamePasswordAuthenticationFilter.class)
                 .userDetailsService(userDetailsService);
         return http.build();
     }
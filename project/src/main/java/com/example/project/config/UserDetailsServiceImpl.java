@@ -4,15 +4,11 @@ import com.example.project.models.User;
 import com.example.project.models.UserDetailsEntity;
 import com.example.project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @RequiredArgsConstructor
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -28,10 +24,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new UsernameNotFoundException("User not found with email: " + email);
         }
 
-
-        Set<SimpleGrantedAuthority> authorities = new HashSet<>();
-        authorities.add(new SimpleGrantedAuthority(user.getRole().toString()));
-
-        return new UserDetailsEntity(user.getEmail(), user.getPassword(), authorities);
+        return new UserDetailsEntity(user.getId(), user.getEmail(), user.getPassword(), user.getRole().authorities());
     }
 }
\ No newline at end of file
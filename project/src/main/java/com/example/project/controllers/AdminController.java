@@ -1,20 +1,34 @@
 package com.example.project.controllers;
 
+import com.example.project.dto.CacheRegionStatsDTO;
+import com.example.project.dto.TaskBatchItemDTO;
+import com.example.project.dto.TaskBatchResultDTO;
 import com.example.project.dto.TaskDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskPatchDTO;
+import com.example.project.dto.TaskStatisticsDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.dto.UserSummaryDTO;
 import com.example.project.enumiration.TaskStatus;
 import com.example.project.models.Task;
-import com.example.project.models.User;
+import com.example.project.service.CacheStatisticsService;
+import com.example.project.service.TaskBatchService;
+import com.example.project.service.TaskExportService;
 import com.example.project.service.TaskService;
 import com.example.project.service.UserService;
+import com.example.project.stats.TaskStatistics;
+import com.example.project.utils.VerifiedTokenCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
@@ -30,6 +44,11 @@ public class AdminController {
 
     private final UserService userService;
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskBatchService taskBatchService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final TaskStatistics taskStatistics;
 
     /**
      * Получить список всех задач.
@@ -43,10 +62,29 @@ public class AdminController {
             @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
             @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
     })
-    public List<Task> findAllTask() {
+    public List<TaskSummaryDTO> findAllTask() {
         return taskService.findAllTasks();
     }
 
+    /**
+     * Выгрузить все задачи потоком в формате NDJSON (одна задача в строке).
+     *
+     * @return Тело ответа, которое пишется по мере чтения задач из базы.
+     */
+    @GetMapping(value = "/exportTasks", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Выгрузить все задачи (NDJSON)", description = "Потоково выгружает все задачи без загрузки их в память целиком.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка задач начата."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        StreamingResponseBody body = taskExportService::exportTasks;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Получить список всех пользователей.
      *
@@ -59,7 +97,7 @@ public class AdminController {
             @ApiResponse(responseCode = "200", description = "Список пользователей успешно получен."),
             @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
     })
-    public List<User> findAllUser() {
+    public List<UserSummaryDTO> findAllUser() {
         return userService.findAll();
     }
 
@@ -76,7 +114,7 @@ public class AdminController {
             @ApiResponse(responseCode = "201", description = "Задача успешно создана."),
             @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
     })
-    public ResponseEntity<Task> addTask(@RequestBody TaskDTO taskDTO) {
+    public ResponseEntity<TaskSummaryDTO> addTask(@RequestBody TaskDTO taskDTO) {
         Task task = taskService.addTask(
                 taskDTO.getTitle(),
                 taskDTO.getDescription(),
@@ -85,7 +123,25 @@ public class AdminController {
                 taskDTO.getPriority(),
                 taskDTO.getStatus()
         );
-        return new ResponseEntity<>(task, HttpStatus.CREATED);
+        return new ResponseEntity<>(TaskSummaryDTO.from(task), HttpStatus.CREATED);
+    }
+
+    /**
+     * Создать и обновить задачи одним пакетом.
+     *
+     * @param items Элементы пакета: без ID задача создается, с ID — обновляется (не более 1000).
+     * @return Отчет о результате обработки каждого элемента в порядке запроса.
+     */
+    @PostMapping("/tasks/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Пакетное создание и обновление задач", description = "Создает и обновляет задачи в одной транзакции и возвращает результат по каждому элементу.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, результат по каждому элементу в теле ответа."),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой пакет."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
+    })
+    public List<TaskBatchResultDTO> saveTasksBatch(@RequestBody List<TaskBatchItemDTO> items) {
+        return taskBatchService.saveAll(items);
     }
 
     /**
@@ -122,13 +178,13 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
             @ApiResponse(responseCode = "404", description = "Задача не найдена.")
     })
-    public ResponseEntity<Task> updateTaskPriority(
+    public ResponseEntity<TaskSummaryDTO> updateTaskPriority(
             @PathVariable Long taskId,
             @PathVariable Long executorId,
             @RequestParam int priority
     ) throws AccessDeniedException {
         Task updatedTask = taskService.updateTaskPriority(taskId, executorId, priority);
-        return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        return new ResponseEntity<>(TaskSummaryDTO.from(updatedTask), HttpStatus.OK);
     }
 
     /**
@@ -147,7 +203,7 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
             @ApiResponse(responseCode = "404", description = "Задача не найдена.")
     })
-    public ResponseEntity<Task> updateTask(@PathVariable Long taskId, @RequestBody TaskDTO taskDTO) throws AccessDeniedException {
+    public ResponseEntity<TaskSummaryDTO> updateTask(@PathVariable Long taskId, @RequestBody TaskDTO taskDTO) throws AccessDeniedException {
         Task updatedTask = taskService.updateTaskAdmin(
                 taskId,
                 taskDTO.getTitle(),
@@ -156,7 +212,28 @@ public class AdminController {
                 taskDTO.getStatus(),
                 taskDTO.getExecutorId()
         );
-        return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        return new ResponseEntity<>(TaskSummaryDTO.from(updatedTask), HttpStatus.OK);
+    }
+
+    /**
+     * Частично обновить задачу (статус и/или приоритет) с проверкой версии.
+     *
+     * @param taskId Идентификатор задачи.
+     * @param patch  Новые значения полей и версия, на которой основано изменение.
+     * @return Обновленная задача с новой версией.
+     */
+    @PatchMapping("/tasks/{taskId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Частично обновить задачу", description = "Меняет статус и/или приоритет задачи одним запросом к БД, если версия задачи не изменилась.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно обновлена."),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена."),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена другим пользователем.")
+    })
+    public ResponseEntity<TaskSummaryDTO> patchTask(@PathVariable Long taskId, @RequestBody TaskPatchDTO patch) {
+        return new ResponseEntity<>(taskService.patchTaskAdmin(taskId, patch), HttpStatus.OK);
     }
 
     /**
@@ -176,13 +253,13 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
             @ApiResponse(responseCode = "404", description = "Задача не найдена.")
     })
-    public ResponseEntity<Task> updateTaskStatus(
+    public ResponseEntity<TaskSummaryDTO> updateTaskStatus(
             @PathVariable Long taskId,
             @PathVariable Long executorId,
             @RequestParam TaskStatus status
     ) throws AccessDeniedException {
         Task updatedTask = taskService.updateTaskStatusAdmin(taskId, executorId, status);
-        return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        return new ResponseEntity<>(TaskSummaryDTO.from(updatedTask), HttpStatus.OK);
     }
 
     /**
@@ -201,12 +278,12 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
             @ApiResponse(responseCode = "404", description = "Задача или исполнитель не найдены.")
     })
-    public ResponseEntity<Task> assignExecutorToTask(
+    public ResponseEntity<TaskSummaryDTO> assignExecutorToTask(
             @PathVariable Long taskId,
             @RequestBody Long executorId
     ) throws AccessDeniedException {
         Task updatedTask = taskService.assignExecutorToTask(taskId, executorId);
-        return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        return new ResponseEntity<>(TaskSummaryDTO.from(updatedTask), HttpStatus.OK);
     }
 
     /**
@@ -215,7 +292,7 @@ public class AdminController {
      * @param taskId      Идентификатор задачи.
      * @param executorId  Идентификатор исполнителя.
      * @param commentText Текст комментария.
-     * @return Обновленная задача с добавленным комментарием.
+     * @return Задача с числом комментариев и последними комментариями.
      * @throws AccessDeniedException Если доступ запрещен.
      */
     @PostMapping("/addCommentToTask/{taskId}/{executorId}")
@@ -226,13 +303,59 @@ public class AdminController {
             @ApiResponse(responseCode = "403", description = "Доступ запрещен."),
             @ApiResponse(responseCode = "404", description = "Задача или исполнитель не найдены.")
     })
-    public ResponseEntity<Task> addCommentToTask(
+    public ResponseEntity<TaskDetailsDTO> addCommentToTask(
             @PathVariable Long taskId,
             @PathVariable Long executorId,
             @RequestBody String commentText
     ) throws AccessDeniedException {
-        Task updatedTask = taskService.addCommentToTaskAdmin(taskId, executorId, commentText);
-        return new ResponseEntity<>(updatedTask, HttpStatus.OK);
+        return new ResponseEntity<>(taskService.addCommentToTaskAdmin(taskId, executorId, commentText), HttpStatus.OK);
+    }
+
+    /**
+     * Получить статистику кэша проверенных JWT-токенов.
+     *
+     * @return Количество попаданий, промахов, вытеснений и текущий размер кэша.
+     */
+    @GetMapping("/tokenCacheStats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Статистика кэша токенов", description = "Возвращает счетчики попаданий и промахов кэша проверенных JWT-токенов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
+    })
+    public VerifiedTokenCache.Stats tokenCacheStats() {
+        return verifiedTokenCache.stats();
+    }
+
+    /**
+     * Получить статистику кэша второго уровня Hibernate по регионам.
+     *
+     * @return Попадания, промахи, записи и число элементов для каждого региона.
+     */
+    @GetMapping("/entityCacheStats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Статистика кэша сущностей", description = "Возвращает статистику кэша второго уровня (пользователи, задачи, natural id) по регионам.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
+    })
+    public List<CacheRegionStatsDTO> entityCacheStats() {
+        return cacheStatisticsService.getSecondLevelCacheStatistics();
     }
-}
 
+    /**
+     * Получить статистику задач по статусам, приоритетам и исполнителям.
+     *
+     * @return Число задач в разрезе статуса, приоритета и исполнителя.
+     */
+    @GetMapping("/taskStats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @Operation(summary = "Статистика задач", description = "Возвращает число задач по статусам, приоритетам и исполнителям из счетчиков в памяти, без запросов к базе.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещен.")
+    })
+    public TaskStatisticsDTO taskStats() {
+        return taskStatistics.snapshot();
+    }
+}
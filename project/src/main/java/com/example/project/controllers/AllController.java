@@ -1,10 +1,18 @@
 package com.example.project.controllers;
 
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
 import com.example.project.dto.UserDTO;
-import com.example.project.models.Task;
-import com.example.project.models.User;
+import com.example.project.dto.UserSummaryDTO;
+import com.example.project.enumiration.TaskSortKey;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.service.CommentService;
 import com.example.project.service.TaskService;
 import com.example.project.service.UserService;
+import com.example.project.stream.TaskEventBroadcaster;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,8 +20,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.function.Supplier;
 
 @RequiredArgsConstructor
 @RestController
@@ -22,6 +38,8 @@ import org.springframework.web.bind.annotation.*;
 public class AllController {
     private final TaskService taskService;
     private final UserService userService;
+    private final CommentService commentService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
 
     /**
      * Получить задачи по автору.
@@ -36,13 +54,15 @@ public class AllController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
-            @ApiResponse(responseCode = "404", description = "Автор не найден.")
+            @ApiResponse(responseCode = "404", description = "Автор не найден."),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match.")
     })
-    public Page<Task> getTasksByAuthor(
+    public ResponseEntity<Page<TaskSummaryDTO>> getTasksByAuthor(
             @RequestParam @Parameter(description = "ID автора, задачи которого нужно найти.") Long authorId,
             @RequestParam(defaultValue = "0") @Parameter(description = "Номер страницы, начиная с 0.") int page,
-            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size) {
-        return taskService.findTasksByAuthor(authorId, page, size);
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            WebRequest request) {
+        return conditional(request, taskService.tasksByAuthorETag(authorId), () -> taskService.findTasksByAuthor(authorId, page, size));
     }
 
     /**
@@ -58,13 +78,15 @@ public class AllController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
             @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
-            @ApiResponse(responseCode = "404", description = "Исполнитель не найден.")
+            @ApiResponse(responseCode = "404", description = "Исполнитель не найден."),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match.")
     })
-    public Page<Task> getTasksByExecutor(
+    public ResponseEntity<Page<TaskSummaryDTO>> getTasksByExecutor(
             @RequestParam @Parameter(description = "ID исполнителя, задачи которого нужно найти.") Long executorId,
             @RequestParam(defaultValue = "0") @Parameter(description = "Номер страницы, начиная с 0.") int page,
-            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size) {
-        return taskService.findTasksByExecutor(executorId, page, size);
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            WebRequest request) {
+        return conditional(request, taskService.tasksByExecutorETag(executorId), () -> taskService.findTasksByExecutor(executorId, page, size));
     }
 
     /**
@@ -82,15 +104,208 @@ public class AllController {
             @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
             @ApiResponse(responseCode = "404", description = "Задачи с указанным названием не найдены.")
     })
-    public Page<Task> getTasksByTitle(
+    public Page<TaskSummaryDTO> getTasksByTitle(
             @RequestParam @Parameter(description = "Название задачи для поиска.") String title,
             @RequestParam(defaultValue = "0") @Parameter(description = "Номер страницы, начиная с 0.") int page,
             @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size) {
         return taskService.findTasksByTitle(title, page, size);
     }
 
+    /**
+     * Получить задачи по автору с keyset-пагинацией.
+     *
+     * @param authorId  ID автора, задачи которого нужно найти.
+     * @param after     Курсор, полученный на предыдущей странице (для первой страницы не передается).
+     * @param size      Размер страницы (по умолчанию 10).
+     * @param withTotal Вернуть ли общее количество задач (требует дополнительного count-запроса).
+     * @return Страница задач и курсор следующей страницы.
+     */
+    @GetMapping("/tasks/author/cursor")
+    @Operation(summary = "Получить задачи по автору (курсор)", description = "Возвращает задачи автора, отсортированные по приоритету и ID, с пагинацией по курсору.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы."),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match.")
+    })
+    public ResponseEntity<CursorPageDTO<TaskSummaryDTO>> getTasksByAuthorCursor(
+            @RequestParam @Parameter(description = "ID автора, задачи которого нужно найти.") Long authorId,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы.") String after,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Вернуть общее количество задач.") boolean withTotal,
+            WebRequest request) {
+        return conditional(request, taskService.tasksByAuthorETag(authorId), () -> taskService.findTasksByAuthorAfter(authorId, after, size, withTotal));
+    }
+
+    /**
+     * Получить задачи по исполнителю с keyset-пагинацией.
+     *
+     * @param executorId ID исполнителя, задачи которого нужно найти.
+     * @param after      Курсор, полученный на предыдущей странице (для первой страницы не передается).
+     * @param size       Размер страницы (по умолчанию 10).
+     * @param withTotal  Вернуть ли общее количество задач (требует дополнительного count-запроса).
+     * @return Страница задач и курсор следующей страницы.
+     */
+    @GetMapping("/tasks/executor/cursor")
+    @Operation(summary = "Получить задачи по исполнителю (курсор)", description = "Возвращает задачи исполнителя, отсортированные по приоритету и ID, с пагинацией по курсору.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы."),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match.")
+    })
+    public ResponseEntity<CursorPageDTO<TaskSummaryDTO>> getTasksByExecutorCursor(
+            @RequestParam @Parameter(description = "ID исполнителя, задачи которого нужно найти.") Long executorId,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы.") String after,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Вернуть общее количество задач.") boolean withTotal,
+            WebRequest request) {
+        return conditional(request, taskService.tasksByExecutorETag(executorId), () -> taskService.findTasksByExecutorAfter(executorId, after, size, withTotal));
+    }
+
+    /**
+     * Получить задачи по названию с keyset-пагинацией.
+     *
+     * @param title     Название задачи для поиска.
+     * @param after     Курсор, полученный на предыдущей странице (для первой страницы не передается).
+     * @param size      Размер страницы (по умолчанию 10).
+     * @param withTotal Вернуть ли общее количество задач (требует дополнительного count-запроса).
+     * @return Страница задач и курсор следующей страницы.
+     */
+    @GetMapping("/tasks/title/cursor")
+    @Operation(summary = "Получить задачи по названию (курсор)", description = "Возвращает задачи, содержащие указанное название, с пагинацией по курсору.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы.")
+    })
+    public CursorPageDTO<TaskSummaryDTO> getTasksByTitleCursor(
+            @RequestParam @Parameter(description = "Название задачи для поиска.") String title,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы.") String after,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Вернуть общее количество задач.") boolean withTotal) {
+        return taskService.findTasksByTitleAfter(title, after, size, withTotal);
+    }
+
+    /**
+     * Найти задачи по любому сочетанию фильтров с keyset-пагинацией.
+     *
+     * @param status      Статусы задач (можно указать несколько).
+     * @param minPriority Минимальный приоритет (включительно).
+     * @param maxPriority Максимальный приоритет (включительно).
+     * @param authorId    ID автора.
+     * @param executorId  ID исполнителя.
+     * @param title       Часть названия задачи.
+     * @param sort        Ключ сортировки: PRIORITY (по умолчанию) или ID.
+     * @param after       Курсор, полученный на предыдущей странице (для первой страницы не передается).
+     * @param size        Размер страницы (по умолчанию 10).
+     * @param withTotal   Вернуть ли общее количество задач (требует дополнительного count-запроса).
+     * @return Страница задач и курсор следующей страницы.
+     */
+    @GetMapping("/tasks/query")
+    @Operation(summary = "Найти задачи по фильтрам (курсор)", description = "Возвращает задачи, подходящие под все заданные фильтры, с пагинацией по курсору. Незаданные фильтры не применяются.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен."),
+            @ApiResponse(responseCode = "400", description = "Некорректный фильтр, курсор или размер страницы.")
+    })
+    public CursorPageDTO<TaskSummaryDTO> queryTasks(
+            @RequestParam(required = false) @Parameter(description = "Статусы задач.") Set<TaskStatus> status,
+            @RequestParam(required = false) @Parameter(description = "Минимальный приоритет.") Integer minPriority,
+            @RequestParam(required = false) @Parameter(description = "Максимальный приоритет.") Integer maxPriority,
+            @RequestParam(required = false) @Parameter(description = "ID автора.") Long authorId,
+            @RequestParam(required = false) @Parameter(description = "ID исполнителя.") Long executorId,
+            @RequestParam(required = false) @Parameter(description = "Часть названия задачи.") String title,
+            @RequestParam(defaultValue = "PRIORITY") @Parameter(description = "Ключ сортировки.") TaskSortKey sort,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы.") String after,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Количество элементов на странице.") int size,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Вернуть общее количество задач.") boolean withTotal) {
+        TaskQueryDTO query = new TaskQueryDTO(status, minPriority, maxPriority, authorId, executorId, title, sort);
+        return taskService.queryTasks(query, after, size, withTotal);
+    }
+
+    /**
+     * Подписаться на изменения задач (Server-Sent Events).
+     *
+     * @param executorId  ID исполнителя, задачи которого нужно отслеживать (необязательно).
+     * @param authorId    ID автора, задачи которого нужно отслеживать (необязательно).
+     * @param lastEventId ID последнего полученного события, с которого нужно продолжить поток.
+     * @return Поток событий CREATED, UPDATED, DELETED и COMMENTED.
+     */
+    @GetMapping(value = "/tasks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Поток изменений задач", description = "Отправляет изменения задач по мере их коммита. " +
+            "При переподключении с заголовком Last-Event-ID пропущенные события досылаются; если их уже нет в буфере, " +
+            "приходит событие reset и данные нужно перечитать.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток событий открыт.")
+    })
+    public SseEmitter streamTasks(
+            @RequestParam(required = false) @Parameter(description = "ID исполнителя.") Long executorId,
+            @RequestParam(required = false) @Parameter(description = "ID автора.") Long authorId,
+            @RequestHeader(value = "Last-Event-ID", required = false) @Parameter(description = "ID последнего полученного события.") Long lastEventId) {
+        return taskEventBroadcaster.subscribe(executorId, authorId, lastEventId);
+    }
+
+    /**
+     * Получить задачу с числом комментариев и последними комментариями.
+     *
+     * @param taskId ID задачи.
+     * @return Задача, число ее комментариев и несколько последних комментариев.
+     */
+    @GetMapping("/tasks/{taskId}")
+    @Operation(summary = "Получить задачу", description = "Возвращает задачу с числом комментариев и последними комментариями.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно получена."),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена."),
+            @ApiResponse(responseCode = "304", description = "Данные не изменились с версии из If-None-Match.")
+    })
+    public ResponseEntity<TaskDetailsDTO> getTask(
+            @PathVariable @Parameter(description = "ID задачи.") Long taskId,
+            WebRequest request) {
+        return conditional(request, taskService.taskDetailsETag(taskId), () -> taskService.getTaskDetails(taskId));
+    }
+
+    /**
+     * Получить комментарии задачи постранично, от новых к старым.
+     *
+     * @param taskId ID задачи.
+     * @param after  Курсор следующей страницы из предыдущего ответа.
+     * @param size   Размер страницы (по умолчанию 20).
+     * @return Страница комментариев и курсор следующей страницы.
+     */
+    @GetMapping("/tasks/{taskId}/comments")
+    @Operation(summary = "Получить комментарии задачи", description = "Возвращает комментарии задачи от новых к старым с курсорной пагинацией.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Комментарии успешно получены."),
+            @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы."),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена.")
+    })
+    public CursorPageDTO<CommentDTO> getTaskComments(
+            @PathVariable @Parameter(description = "ID задачи.") Long taskId,
+            @RequestParam(required = false) @Parameter(description = "Курсор следующей страницы.") String after,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Количество комментариев на странице.") int size) {
+        return commentService.findComments(taskId, after, size);
+    }
+
     @PostMapping("/register")
-    public ResponseEntity<User> register(@RequestBody UserDTO userDTO) {
-        return ResponseEntity.ok(userService.addUser(userDTO));
+    public ResponseEntity<UserSummaryDTO> register(@RequestBody UserDTO userDTO) {
+        return ResponseEntity.ok(UserSummaryDTO.from(userService.addUser(userDTO)));
+    }
+
+    /**
+     * Отвечает 304, если If-None-Match совпадает с текущим ETag, не вызывая {@code body}; иначе отдает
+     * данные с ETag и требованием перепроверять их перед использованием из кэша.
+     * <p>
+     * ETag слабый: версия данных одна для JSON, CBOR и Smile и не меняется от gzip, а сильный ETag Tomcat
+     * не сжимает. Vary: Accept не дает кэшу отдать JSON клиенту, запросившему CBOR или Smile, и наоборот.
+     */
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String version, Supplier<T> body) {
+        String eTag = version != null ? "W/\"" + version + "\"" : null;
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(body.get());
     }
 }
@@ -0,0 +1,61 @@
+package com.example.project.controllers;
+
+import com.example.project.dto.RefreshTokenRequestDTO;
+import com.example.project.dto.TokenPairDTO;
+import com.example.project.service.RefreshTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/v1.0/")
+@Tag(name = "AuthController", description = "Контроллер для обновления и отзыва токенов.")
+public class AuthController {
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Обменять refresh-токен на новую пару токенов.
+     *
+     * @param request Refresh-токен, полученный при входе или предыдущем обновлении.
+     * @return Новые access- и refresh-токены; предъявленный refresh-токен больше не действует.
+     */
+    @PostMapping("/token/refresh")
+    @Operation(summary = "Обновить токены", description = "Выдает новый access-токен без проверки пароля и заменяет refresh-токен.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Токены успешно обновлены."),
+            @ApiResponse(responseCode = "400", description = "Refresh-токен не передан."),
+            @ApiResponse(responseCode = "401", description = "Refresh-токен недействителен, истек или уже использован.")
+    })
+    public TokenPairDTO refresh(@RequestBody RefreshTokenRequestDTO request) {
+        return refreshTokenService.refresh(requireToken(request));
+    }
+
+    /**
+     * Выйти: отозвать refresh-токен и все токены, полученные его обновлением.
+     *
+     * @param request Текущий refresh-токен.
+     */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Выйти", description = "Отзывает refresh-токен. Выданные access-токены действуют до истечения срока.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Refresh-токен отозван."),
+            @ApiResponse(responseCode = "400", description = "Refresh-токен не передан.")
+    })
+    public void logout(@RequestBody RefreshTokenRequestDTO request) {
+        refreshTokenService.revoke(requireToken(request));
+    }
+
+    private static String requireToken(RefreshTokenRequestDTO request) {
+        if (request == null || request.getRefreshToken() == null || request.getRefreshToken().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "refresh_token is required");
+        }
+        return request.getRefreshToken();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.project.controllers;
+
+import com.example.project.utils.PasswordHashingOverloadedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Преобразование исключений, общих для всех контроллеров, в HTTP-ответы.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    /**
+     * Конфликт версий при сохранении любой сущности с {@code @Version}; имя сущности берётся из исключения,
+     * если Hibernate его сообщил.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error_message", entityName(e) + " was modified concurrently, reload it and retry"));
+    }
+
+    private static String entityName(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure && objectFailure.getPersistentClassName() != null) {
+            String className = objectFailure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "Resource";
+    }
+
+    /**
+     * Соединение с БД не получено: пул исчерпан, ограничитель соединений переполнен или база недоступна.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, String>> handleNoConnection(CannotCreateTransactionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error_message", "Service is overloaded, retry later"));
+    }
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingOverloaded(PasswordHashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error_message", "Service is overloaded, retry later"));
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.project.controllers;
 
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskPatchDTO;
+import com.example.project.dto.TaskSummaryDTO;
 import com.example.project.enumiration.TaskStatus;
 import com.example.project.models.Task;
 import com.example.project.service.TaskService;
@@ -8,11 +12,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.AccessDeniedException;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
@@ -55,12 +61,38 @@ public class UserController {
             @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
             @ApiResponse(responseCode = "403", description = "Отказ в доступе.")
     })
-    public ResponseEntity<Task> updateTaskStatus(
+    public ResponseEntity<TaskSummaryDTO> updateTaskStatus(
             @PathVariable Long taskId,
             @RequestParam Long executorId,
             @RequestParam TaskStatus status) throws AccessDeniedException {
         Task updatedTask = taskService.updateTaskStatus(taskId, executorId, status);
-        return ResponseEntity.ok(updatedTask);
+        return ResponseEntity.ok(TaskSummaryDTO.from(updatedTask));
+    }
+
+    /**
+     * Частично обновить задачу (статус и/или приоритет) с проверкой версии.
+     *
+     * @param taskId     ID задачи.
+     * @param executorId ID исполнителя.
+     * @param patch      Новые значения полей и версия, на которой основано изменение.
+     * @return Обновленную задачу с новой версией.
+     * @throws AccessDeniedException если у пользователя нет прав для изменения задачи.
+     */
+    @PatchMapping("/{taskId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN','USER')")
+    @Operation(summary = "Частично обновить задачу", description = "Меняет статус и/или приоритет задачи одним запросом к БД, если версия задачи не изменилась.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача успешно обновлена."),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
+            @ApiResponse(responseCode = "403", description = "Отказ в доступе."),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена."),
+            @ApiResponse(responseCode = "409", description = "Задача была изменена другим пользователем.")
+    })
+    public ResponseEntity<TaskSummaryDTO> patchTask(
+            @PathVariable Long taskId,
+            @RequestParam Long executorId,
+            @RequestBody TaskPatchDTO patch) throws AccessDeniedException {
+        return ResponseEntity.ok(taskService.patchTask(taskId, executorId, patch));
     }
 
     /**
@@ -69,7 +101,7 @@ public class UserController {
      * @param taskId    ID задачи.
      * @param executorId ID исполнителя.
      * @param comment    Текст комментария.
-     * @return Обновленную задачу с добавленным комментарием.
+     * @return Задачу с числом комментариев и последними комментариями.
      * @throws AccessDeniedException если у пользователя нет прав для добавления комментария.
      */
     @PostMapping("/{taskId}/comments")
@@ -80,11 +112,45 @@ public class UserController {
             @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
             @ApiResponse(responseCode = "403", description = "Отказ в доступе.")
     })
-    public ResponseEntity<Task> addCommentToTask(
+    public ResponseEntity<TaskDetailsDTO> addCommentToTask(
             @PathVariable Long taskId,
             @RequestParam Long executorId,
             @RequestParam String comment) throws AccessDeniedException {
-        Task updatedTask = taskService.addCommentToTask(taskId, executorId, comment);
-        return ResponseEntity.ok(updatedTask);
+        return ResponseEntity.ok(taskService.addCommentToTask(taskId, executorId, comment));
+    }
+
+    /**
+     * Добавить комментарий через очередь отложенной записи.
+     *
+     * @param taskId       ID задачи.
+     * @param executorId   ID исполнителя.
+     * @param comment      Текст комментария.
+     * @param waitForFlush Ждать записи в базу (по умолчанию) или ответить сразу после постановки в очередь.
+     * @return Сохраненный комментарий (201) или пустой ответ 202 без ожидания записи.
+     * @throws AccessDeniedException если у пользователя нет прав для добавления комментария.
+     */
+    @PostMapping("/{taskId}/comments/async")
+    @PreAuthorize("hasAnyAuthority('ADMIN','USER')")
+    @Operation(summary = "Добавить комментарий через очередь", description = "Комментарий проверяется сразу и сохраняется пакетом вместе с другими. " +
+            "При waitForFlush=false ответ приходит до записи в базу, и комментарий может быть потерян при аварийной остановке.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Комментарий сохранен."),
+            @ApiResponse(responseCode = "202", description = "Комментарий принят в очередь."),
+            @ApiResponse(responseCode = "400", description = "Некорректный запрос."),
+            @ApiResponse(responseCode = "403", description = "Отказ в доступе."),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена."),
+            @ApiResponse(responseCode = "503", description = "Очередь переполнена, повторите позже.")
+    })
+    public CompletableFuture<ResponseEntity<CommentDTO>> submitCommentToTask(
+            @PathVariable Long taskId,
+            @RequestParam Long executorId,
+            @RequestParam String comment,
+            @RequestParam(defaultValue = "true") boolean waitForFlush) throws AccessDeniedException {
+        CompletableFuture<CommentDTO> saved = taskService.submitCommentToTask(taskId, executorId, comment);
+        // Без очереди комментарий уже записан синхронно, и ошибку записи нельзя скрывать за 202
+        if (!waitForFlush && !saved.isCompletedExceptionally()) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().build());
+        }
+        return saved.thenApply(dto -> ResponseEntity.status(HttpStatus.CREATED).body(dto));
     }
 }
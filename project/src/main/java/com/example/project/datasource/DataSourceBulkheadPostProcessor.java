@@ -0,0 +1,61 @@
+package com.example.project.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Оборачивает DataSource в {@link BulkheadDataSource}, если задано {@code app.datasource.bulkhead.enabled=true}.
+ * По умолчанию число разрешений равно размеру пула HikariCP (при разделении чтения и записи — сумме пулов).
+ */
+@Slf4j
+@Component
+public class DataSourceBulkheadPostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource
+                || !environment.getProperty("app.datasource.bulkhead.enabled", Boolean.class, false)) {
+            return bean;
+        }
+        int maxConcurrent = environment.getProperty("app.datasource.bulkhead.max-concurrent", Integer.class, 0);
+        if (maxConcurrent <= 0) {
+            maxConcurrent = poolSize(dataSource);
+        }
+        Duration acquireTimeout = environment.getProperty("app.datasource.bulkhead.acquire-timeout",
+                Duration.class, Duration.ofSeconds(2));
+        log.info("Database connection bulkhead for '{}': {} permits, acquire timeout {}",
+                beanName, maxConcurrent, acquireTimeout);
+        return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeout);
+    }
+
+    /**
+     * Суммарный размер пулов за DataSource; при разделении чтения и записи — основной базы и всех реплик.
+     */
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            return poolSize(delegating.getTargetDataSource());
+        }
+        if (dataSource instanceof ReplicaRoutingDataSource routing) {
+            return routing.getRouter().getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.project.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разделение чтения и записи: включается свойством {@code app.datasource.replica.urls} (адреса реплик
+ * через запятую). Основная база настраивается как обычно ({@code spring.datasource.*}), реплики получают
+ * те же настройки HikariCP, учетные данные основной базы, если не заданы свои, и собственные пулы.
+ *
+ * <p>Приложению отдается один DataSource: {@link ReplicaRoutingDataSource} за
+ * {@link LazyConnectionDataSourceProxy}. Flyway и все, что работает вне транзакций, попадают в основную базу.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                       @Value("${app.datasource.replica.urls}") List<String> urls,
+                                       @Value("${app.datasource.replica.username:}") String username,
+                                       @Value("${app.datasource.replica.password:}") String password,
+                                       @Value("${app.datasource.replica.maximum-pool-size:0}") int maximumPoolSize,
+                                       @Value("${app.datasource.replica.max-lag:PT5S}") Duration maxLag,
+                                       @Value("${app.datasource.replica.read-your-writes-window:PT5S}") Duration readYourWritesWindow) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry, "primary", properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+
+        List<ReplicaRouter.Replica> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource pool = pool(properties, environment, meterRegistry, name, urls.get(i).trim(),
+                    username.isEmpty() ? properties.determineUsername() : username,
+                    password.isEmpty() ? properties.determinePassword() : password);
+            pool.setReadOnly(true);
+            if (maximumPoolSize > 0) {
+                pool.setMaximumPoolSize(maximumPoolSize);
+                pool.setMinimumIdle(Math.min(pool.getMinimumIdle(), maximumPoolSize));
+            }
+            replicas.add(new ReplicaRouter.Replica(name, pool));
+        }
+        log.info("Read-only service transactions are routed to {} replica(s), max lag {}", replicas.size(), maxLag);
+
+        ReplicaRouter router = new ReplicaRouter(primary, replicas, maxLag, readYourWritesWindow);
+        router.checkReplicas();
+        return router;
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(replicaRouter));
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRouter replicaRouter) {
+        return registry -> {
+            for (ReplicaRouter.Replica replica : replicaRouter.getReplicas()) {
+                Gauge.builder("datasource.replica.available", replica, r -> replicaRouter.isAvailable(r) ? 1 : 0)
+                        .tag("replica", replica.name())
+                        .register(registry);
+                Gauge.builder("datasource.replica.lag", replica, r -> r.getLagMillis() / 1000.0)
+                        .tag("replica", replica.name())
+                        .baseUnit("seconds")
+                        .register(registry);
+            }
+            FunctionCounter.builder("datasource.routing.reads", replicaRouter, ReplicaRouter::getPrimaryReads)
+                    .tag("target", "primary")
+                    .register(registry);
+            FunctionCounter.builder("datasource.routing.reads", replicaRouter, ReplicaRouter::getReplicaReads)
+                    .tag("target", "replica")
+                    .register(registry);
+        };
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                         String name, String url, String username, String password) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.project.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Разрешает чтение с реплики на время методов сервисов с {@code @Transactional(readOnly = true)}.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class ReplicaReadAspect {
+
+    @Around("within(com.example.project.service..*) && @annotation(transactional)")
+    public Object readFromReplica(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+        boolean nested = ReplicaRouter.enterReplicaRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRouter.exitReplicaRead(nested);
+        }
+    }
+}
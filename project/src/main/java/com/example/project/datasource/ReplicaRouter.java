@@ -0,0 +1,262 @@
+package com.example.project.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Выбирает пул для нового соединения: основную базу или одну из реплик.
+ *
+ * <p>На реплику уходят только транзакции {@code readOnly}, открытые методами сервисов (их помечает
+ * {@link ReplicaReadAspect}); чтения репозиториев вне сервисов, например поиск пользователя при входе,
+ * остаются на основной базе. Реплики перебираются по кругу, пропускаются недоступные и отстающие больше
+ * {@code maxLag}; если подходящей нет, чтение идет в основную базу.
+ *
+ * <p>Чтобы пользователь видел свои изменения, после коммита транзакции на запись его чтения
+ * {@code readYourWritesWindow} идут в основную базу.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    // Реплика, догнавшая основную базу, имеет отставание 0, даже если записей давно не было.
+    static final String LAG_QUERY = "select case when not pg_is_in_recovery() then 0 " +
+            "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+
+    public ReplicaRouter(DataSource primary, List<Replica> replicas, Duration maxLag, Duration readYourWritesWindow) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+    }
+
+    /**
+     * Отмечает, что текущий поток выполняет read-only метод сервиса; {@code true} — метка уже стояла
+     * (вложенный вызов), это значение передается в {@link #exitReplicaRead}.
+     */
+    static boolean enterReplicaRead() {
+        boolean nested = REPLICA_READ.get() != null;
+        REPLICA_READ.set(Boolean.TRUE);
+        return nested;
+    }
+
+    static void exitReplicaRead(boolean nested) {
+        if (!nested) {
+            REPLICA_READ.remove();
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource().getConnection();
+        } catch (SQLException e) {
+            // Реплика перестала отвечать между проверками: до следующей проверки она не используется.
+            log.warn("Replica {} is unavailable, reading from the primary: {}", replica.name(), e.getMessage());
+            replica.markUnavailable();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Проверяет доступность и отставание реплик и удаляет истекшие привязки пользователей к основной базе.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                replica.update(true, Math.round(lag.getDouble(1) * 1000));
+            } catch (SQLException e) {
+                if (replica.isHealthy()) {
+                    log.warn("Replica {} failed the health check: {}", replica.name(), e.getMessage());
+                }
+                replica.markUnavailable();
+            }
+        }
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now < 0);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public int getMaximumPoolSize() {
+        int size = poolSize(primary);
+        for (Replica replica : replicas) {
+            size += poolSize(replica.dataSource());
+        }
+        return size;
+    }
+
+    public boolean isAvailable(Replica replica) {
+        return replica.isHealthy() && replica.getLagMillis() <= maxLagMillis;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Replica route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                pinCurrentUserAfterCommit();
+            }
+            return null;
+        }
+        if (REPLICA_READ.get() == null || isCurrentUserPinned()) {
+            primaryReads.increment();
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (isAvailable(replica)) {
+                replicaReads.increment();
+                return replica;
+            }
+        }
+        primaryReads.increment();
+        return null;
+    }
+
+    /**
+     * Окно read-your-writes отсчитывается от коммита, а не от начала транзакции: иначе длинная транзакция
+     * на запись могла бы исчерпать окно до того, как ее изменения вообще дойдут до реплик.
+     */
+    private void pinCurrentUserAfterCommit() {
+        String user = currentUser();
+        if (user == null || readYourWritesNanos <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pin(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(user);
+            }
+        });
+    }
+
+    private void pin(String user) {
+        pinnedUntil.put(user, System.nanoTime() + readYourWritesNanos);
+    }
+
+    private boolean isCurrentUserPinned() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Пул реплики и результат ее последней проверки.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        void update(boolean healthy, long lagMillis) {
+            this.lagMillis = lagMillis;
+            this.healthy = healthy;
+        }
+
+        void markUnavailable() {
+            this.healthy = false;
+        }
+    }
+}
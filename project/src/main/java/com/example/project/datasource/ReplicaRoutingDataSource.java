@@ -0,0 +1,35 @@
+package com.example.project.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * DataSource, отдающий соединения из пула, выбранного {@link ReplicaRouter}. Выбор зависит от флага
+ * read-only текущей транзакции, поэтому использовать его нужно через {@code LazyConnectionDataSourceProxy}:
+ * тогда физическое соединение берется при первом запросе, когда транзакция уже открыта.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    public ReplicaRouter getRouter() {
+        return router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return router.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Routed connections use the credentials of each pool");
+    }
+}
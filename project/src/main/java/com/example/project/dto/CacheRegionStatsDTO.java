@@ -0,0 +1,7 @@
+package com.example.project.dto;
+
+/**
+ * Статистика одного региона кэша второго уровня Hibernate.
+ */
+public record CacheRegionStatsDTO(String region, long hits, long misses, long puts, long elementsInMemory) {
+}
@@ -0,0 +1,15 @@
+package com.example.project.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий без связанных сущностей: задача и автор передаются идентификаторами.
+ */
+public record CommentDTO(
+        Long id,
+        Long taskId,
+        Long authorId,
+        String content,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.project.dto;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации: элементы, курсор следующей страницы и,
+ * если его запросили, общее количество элементов.
+ */
+public record CursorPageDTO<T>(List<T> content, String nextCursor, boolean hasNext, Long totalElements) {
+}
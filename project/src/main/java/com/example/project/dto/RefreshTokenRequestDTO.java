@@ -0,0 +1,11 @@
+package com.example.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDTO {
+
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+}
@@ -0,0 +1,13 @@
+package com.example.project.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Элемент пакетной операции: без {@code id} задача создается, с {@code id} — обновляется.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TaskBatchItemDTO extends TaskDTO {
+    private Long id;
+}
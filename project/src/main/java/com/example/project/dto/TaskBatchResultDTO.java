@@ -0,0 +1,15 @@
+package com.example.project.dto;
+
+/**
+ * Результат обработки одного элемента пакета; {@code index} — позиция элемента в запросе.
+ */
+public record TaskBatchResultDTO(int index, Long taskId, Status status, String error) {
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+
+    public static TaskBatchResultDTO failed(int index, Long taskId, String error) {
+        return new TaskBatchResultDTO(index, taskId, Status.FAILED, error);
+    }
+}
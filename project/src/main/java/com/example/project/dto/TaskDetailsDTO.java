@@ -0,0 +1,14 @@
+package com.example.project.dto;
+
+import java.util.List;
+
+/**
+ * Задача с числом комментариев и несколькими последними из них; остальные комментарии
+ * запрашиваются постранично через {@code GET /tasks/{id}/comments}.
+ */
+public record TaskDetailsDTO(
+        TaskSummaryDTO task,
+        long commentCount,
+        List<CommentDTO> latestComments
+) {
+}
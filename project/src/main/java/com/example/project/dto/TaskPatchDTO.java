@@ -0,0 +1,14 @@
+package com.example.project.dto;
+
+import com.example.project.enumiration.TaskStatus;
+import lombok.Data;
+
+/**
+ * Частичное обновление задачи: передаются только изменяемые поля и версия, на которой основано изменение.
+ */
+@Data
+public class TaskPatchDTO {
+    private TaskStatus status;
+    private Integer priority;
+    private Long version;
+}
@@ -0,0 +1,27 @@
+package com.example.project.dto;
+
+import com.example.project.enumiration.TaskSortKey;
+import com.example.project.enumiration.TaskStatus;
+
+import java.util.Set;
+
+/**
+ * Фильтры и сортировка для GET /tasks/query. Незаданные фильтры (null, пустой набор статусов, пустое
+ * название) в запрос не попадают; без явной сортировки задачи упорядочиваются по приоритету.
+ */
+public record TaskQueryDTO(
+        Set<TaskStatus> statuses,
+        Integer minPriority,
+        Integer maxPriority,
+        Long authorId,
+        Long executorId,
+        String title,
+        TaskSortKey sort
+) {
+
+    public TaskQueryDTO {
+        statuses = statuses == null || statuses.isEmpty() ? null : Set.copyOf(statuses);
+        title = title == null || title.isBlank() ? null : title;
+        sort = sort == null ? TaskSortKey.PRIORITY : sort;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.project.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Число задач по статусам, приоритетам и исполнителям. Задачи без статуса учитываются
+ * под ключом {@code NONE}, без исполнителя — в строке с {@code executorId = null}.
+ */
+public record TaskStatisticsDTO(
+        long total,
+        Map<String, Long> byStatus,
+        Map<Integer, Long> byPriority,
+        List<ExecutorStatistics> byExecutor
+) {
+
+    public record ExecutorStatistics(Long executorId, long total, Map<String, Long> byStatus) {
+    }
+}
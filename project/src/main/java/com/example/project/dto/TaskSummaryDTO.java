@@ -0,0 +1,33 @@
+package com.example.project.dto;
+
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.models.Task;
+
+/**
+ * Плоское представление задачи без связанных сущностей: вместо автора и исполнителя
+ * передаются только их идентификаторы.
+ */
+public record TaskSummaryDTO(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        int priority,
+        Long authorId,
+        Long executorId,
+        long version
+) {
+
+    public static TaskSummaryDTO from(Task task) {
+        return new TaskSummaryDTO(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getStatus(),
+                task.getPriority(),
+                task.getAuthor() != null ? task.getAuthor().getId() : null,
+                task.getExecutor() != null ? task.getExecutor().getId() : null,
+                task.getVersion()
+        );
+    }
+}
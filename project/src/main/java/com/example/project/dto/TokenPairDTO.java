@@ -0,0 +1,10 @@
+package com.example.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Ответ входа и обновления токенов; имена полей совпадают с ответом {@code /login}.
+ */
+public record TokenPairDTO(@JsonProperty("access_token") String accessToken,
+                           @JsonProperty("refresh_token") String refreshToken) {
+}
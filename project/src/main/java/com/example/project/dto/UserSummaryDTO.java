@@ -0,0 +1,14 @@
+package com.example.project.dto;
+
+import com.example.project.enumiration.Role;
+import com.example.project.models.User;
+
+/**
+ * Публичное представление пользователя: без хэша пароля.
+ */
+public record UserSummaryDTO(Long id, String email, Role role) {
+
+    public static UserSummaryDTO from(User user) {
+        return new UserSummaryDTO(user.getId(), user.getEmail(), user.getRole());
+    }
+}
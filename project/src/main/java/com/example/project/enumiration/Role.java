@@ -1,5 +1,32 @@
 package com.example.project.enumiration;
 
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 public enum Role {
-    USER, ADMIN
+    USER, ADMIN;
+
+    private static final Map<String, Role> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(Role::name, Function.identity()));
+
+    private final Set<SimpleGrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority(name()));
+
+    /**
+     * Неизменяемый набор прав роли, общий для всех пользователей и запросов.
+     */
+    public Set<SimpleGrantedAuthority> authorities() {
+        return authorities;
+    }
+
+    /**
+     * Роль по имени права из токена или null, если такой роли нет.
+     */
+    public static Role fromAuthority(String authority) {
+        return BY_NAME.get(authority);
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.project.enumiration;
+
+/**
+ * Ключ сортировки в GET /tasks/query: по приоритету (затем по ID) или только по ID.
+ */
+public enum TaskSortKey {
+    PRIORITY, ID
+}
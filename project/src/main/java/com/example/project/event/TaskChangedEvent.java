@@ -0,0 +1,35 @@
+package com.example.project.event;
+
+import com.example.project.dto.TaskSummaryDTO;
+
+/**
+ * Событие изменения задачи, публикуемое {@code TaskService} после записи.
+ * Содержит состояние задачи до и после изменения; для созданной задачи {@code before} равен null,
+ * для удаленной — {@code after}.
+ */
+public record TaskChangedEvent(Type type, TaskSummaryDTO before, TaskSummaryDTO after) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, COMMENTED
+    }
+
+    public static TaskChangedEvent created(TaskSummaryDTO after) {
+        return new TaskChangedEvent(Type.CREATED, null, after);
+    }
+
+    public static TaskChangedEvent updated(TaskSummaryDTO before, TaskSummaryDTO after) {
+        return new TaskChangedEvent(Type.UPDATED, before, after);
+    }
+
+    public static TaskChangedEvent deleted(TaskSummaryDTO before) {
+        return new TaskChangedEvent(Type.DELETED, before, null);
+    }
+
+    public static TaskChangedEvent commented(TaskSummaryDTO task) {
+        return new TaskChangedEvent(Type.COMMENTED, task, task);
+    }
+
+    public Long taskId() {
+        return after != null ? after.id() : before.id();
+    }
+}
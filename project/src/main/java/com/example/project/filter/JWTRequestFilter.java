@@ -1,8 +1,9 @@
 package com.example.project.filter;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.example.project.utils.JWTUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,8 +18,7 @@ import org.springframework.security.web.authentication.preauth.PreAuthenticatedA
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
 
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.util.MimeTypeUtils.APPLICATION_JSON_VALUE;
@@ -27,25 +27,35 @@ import static org.springframework.util.MimeTypeUtils.APPLICATION_JSON_VALUE;
 @RequiredArgsConstructor
 public class JWTRequestFilter extends OncePerRequestFilter {
 
+    private static final String VERIFICATION_FAILURES = "security.jwt.verification.failures";
+
+    // DefaultBearerTokenResolver без состояния, один экземпляр на все запросы.
+    private static final BearerTokenResolver BEARER_TOKEN_RESOLVER = new DefaultBearerTokenResolver();
+
+    private static final byte[] INVALID_TOKEN_BODY = errorBody("invalid token");
+    private static final byte[] EXPIRED_TOKEN_BODY = errorBody("token expired");
+
     private final JWTUtils jwtUtils;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
-        BearerTokenResolver bearerTokenResolver = new DefaultBearerTokenResolver();
-        String token = bearerTokenResolver.resolve(request);
+        String token = BEARER_TOKEN_RESOLVER.resolve(request);
         if (token != null) {
             try {
                 PreAuthenticatedAuthenticationToken principal = jwtUtils.getAuthentication(token);
                 SecurityContextHolder.getContext().setAuthentication(principal);
             } catch (JWTVerificationException e) {
-                log.error("invalid token", e);
+                log.warn("invalid token: {}", e.getMessage());
+                meterRegistry.counter(VERIFICATION_FAILURES, "reason", e.getClass().getSimpleName()).increment();
+                byte[] body = e instanceof TokenExpiredException ? EXPIRED_TOKEN_BODY : INVALID_TOKEN_BODY;
                 response.setStatus(FORBIDDEN.value());
-                Map<String, String> error = new HashMap<>();
-                error.put("error_message", e.getMessage());
                 response.setContentType(APPLICATION_JSON_VALUE);
-                new ObjectMapper().writeValue(response.getOutputStream(), error);
+                response.setContentLength(body.length);
+                response.getOutputStream().write(body);
+                return;
             }
 
         }
@@ -53,4 +63,8 @@ public class JWTRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
-}
\ No newline at end of file
+
+    private static byte[] errorBody(String message) {
+        return ("{\"error_message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
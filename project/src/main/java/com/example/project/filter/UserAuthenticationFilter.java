@@ -1,21 +1,26 @@
 package com.example.project.filter;
 
+import com.example.project.dto.TokenPairDTO;
 import com.example.project.models.UserDetailsEntity;
-import com.example.project.utils.JWTUtils;
+import com.example.project.service.RefreshTokenService;
+import com.example.project.utils.PasswordHashingOverloadedException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -24,7 +29,13 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 @RequiredArgsConstructor
 public class UserAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
-    private final JWTUtils jwtUtils;
+    // ObjectMapper потокобезопасен после настройки; он, reader и writer переиспользуются всеми входами.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectReader LOGIN_READER = OBJECT_MAPPER.readerFor(LoginRequest.class);
+    private static final ObjectWriter TOKEN_WRITER = OBJECT_MAPPER.writerFor(TokenPairDTO.class);
+    private static final ObjectWriter ERROR_WRITER = OBJECT_MAPPER.writerFor(Map.class);
+
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) {
@@ -33,9 +44,9 @@ public class UserAuthenticationFilter extends UsernamePasswordAuthenticationFilt
         String password = "";
 
         try (ServletInputStream inputStream = request.getInputStream()) {
-            var loginData = new ObjectMapper().readValue(inputStream, Map.class);
-            email = (String) loginData.get("email");
-            password = (String) loginData.get("password");
+            LoginRequest loginData = LOGIN_READER.readValue(inputStream);
+            email = loginData.email();
+            password = loginData.password();
         } catch (IOException ex) {
             log.error("Invalid login request", ex);
         }
@@ -49,23 +60,24 @@ public class UserAuthenticationFilter extends UsernamePasswordAuthenticationFilt
                                             FilterChain filterChain, Authentication authentication) throws IOException {
         var user = (UserDetailsEntity) authentication.getPrincipal();
 
-        String accessToken = jwtUtils.generateAccessToken(user);
-
-        Map<String, String> token = new HashMap<>();
-        token.put("access_token", accessToken);
-
         response.setContentType(APPLICATION_JSON_VALUE);
-        new ObjectMapper().writeValue(response.getOutputStream(), token);
+        TOKEN_WRITER.writeValue(response.getOutputStream(), refreshTokenService.issue(user));
     }
 
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException {
-        response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        if (failed instanceof PasswordHashingOverloadedException) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        } else {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+        }
         response.setContentType(APPLICATION_JSON_VALUE);
 
-        Map<String, String> error = new HashMap<>();
-        error.put("error_message", failed.getMessage());
+        ERROR_WRITER.writeValue(response.getOutputStream(), Map.of("error_message", String.valueOf(failed.getMessage())));
+    }
 
-        new ObjectMapper().writeValue(response.getOutputStream(), error);
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record LoginRequest(String email, String password) {
     }
 }
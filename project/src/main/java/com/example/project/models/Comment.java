@@ -1,6 +1,6 @@
 package com.example.project.models;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.proxy.HibernateProxy;
@@ -15,22 +15,29 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 public class Comment {
+    /**
+     * Максимальная длина текста комментария, совпадает с размером колонки {@code content}.
+     */
+    public static final int MAX_CONTENT_LENGTH = 500;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id", nullable = false)
-    @JsonBackReference
+    @JsonIgnore
+    @ToString.Exclude
     private Task task;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
+    @ToString.Exclude
     private User author;
 
 
-    @Column(nullable = false, length = 500)
+    @Column(nullable = false, length = MAX_CONTENT_LENGTH)
     private String content;
 
     private LocalDateTime createdAt;
@@ -1,9 +1,11 @@
 package com.example.project.models;
 
 import com.example.project.enumiration.TaskStatus;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.util.List;
@@ -16,9 +18,12 @@ import java.util.Objects;
 @ToString
 @RequiredArgsConstructor
 @Table(name = "tasks")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
 public class Task {
+    // Пул из 50 значений последовательности на одно обращение к БД; с IDENTITY Hibernate не может пакетировать вставки.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -32,16 +37,22 @@ public class Task {
 
     private int priority;
 
-    @ManyToOne
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "executor_id")
     private User executor;
 
-    @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
-    @JsonManagedReference
+    // Комментарии не сериализуются вместе с задачей и не удаляются каскадом по одному:
+    // их отдает постраничный GET /tasks/{id}/comments, а удаляет один bulk DELETE в TaskService.deleteTask.
+    @OneToMany(mappedBy = "task", fetch = FetchType.LAZY)
+    @JsonIgnore
     @ToString.Exclude
     private List<Comment> comments;
 
@@ -11,12 +11,28 @@ import java.util.Set;
 @AllArgsConstructor
 public class UserDetailsEntity implements UserDetails {
 
+    private Long id;
+
     private String email;
 
     private String password;
 
     private Set<SimpleGrantedAuthority> authorities;
 
+    /**
+     * ID пользователя из базы; у токенов, выпущенных до появления claim {@code uid}, равен null.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Копия без хеша пароля, для хранения вне контекста аутентификации.
+     */
+    public UserDetailsEntity withoutPassword() {
+        return password == null ? this : new UserDetailsEntity(id, email, null, authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
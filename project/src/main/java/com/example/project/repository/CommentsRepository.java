@@ -1,7 +1,37 @@
 package com.example.project.repository;
 
+import com.example.project.dto.CommentDTO;
 import com.example.project.models.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface CommentsRepository extends JpaRepository<Comment, Long> {
+
+    String COMMENT_SELECT = "select new com.example.project.dto.CommentDTO(" +
+            "c.id, c.task.id, c.author.id, c.content, c.createdAt) from Comment c ";
+
+    // Keyset-пагинация от новых к старым по (createdAt, id) над индексом (task_id, created_at, id).
+
+    @Query(COMMENT_SELECT + "where c.task.id = :taskId order by c.createdAt desc, c.id desc")
+    List<CommentDTO> findFirstKeysetByTaskId(@Param("taskId") Long taskId, Pageable limit);
+
+    @Query(COMMENT_SELECT + "where c.task.id = :taskId " +
+            "and c.createdAt <= :createdAt and (c.createdAt < :createdAt or c.id < :id) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CommentDTO> findKeysetByTaskIdBefore(@Param("taskId") Long taskId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    long countByTaskId(Long taskId);
+
+    @Modifying
+    @Query("delete from Comment c where c.task.id = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
 }
@@ -0,0 +1,16 @@
+package com.example.project.repository;
+
+import com.example.project.enumiration.TaskStatus;
+
+/**
+ * Число задач с одинаковыми статусом, исполнителем и приоритетом.
+ */
+public interface TaskCountRow {
+    TaskStatus getStatus();
+
+    Long getExecutorId();
+
+    int getPriority();
+
+    long getCount();
+}
@@ -0,0 +1,12 @@
+package com.example.project.repository;
+
+/**
+ * Отпечаток задачи вместе с ее комментариями для ETag: версия задачи, число комментариев и id последнего.
+ */
+public interface TaskDetailsFingerprint {
+    long getVersion();
+
+    long getCommentCount();
+
+    long getLastCommentId();
+}
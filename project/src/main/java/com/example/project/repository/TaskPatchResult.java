@@ -0,0 +1,28 @@
+package com.example.project.repository;
+
+import com.example.project.enumiration.TaskStatus;
+
+/**
+ * Строка, возвращаемая частичным обновлением задачи: новое состояние и значения полей до обновления.
+ */
+public interface TaskPatchResult {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    TaskStatus getStatus();
+
+    int getPriority();
+
+    Long getAuthorId();
+
+    Long getExecutorId();
+
+    long getVersion();
+
+    TaskStatus getPreviousStatus();
+
+    int getPreviousPriority();
+}
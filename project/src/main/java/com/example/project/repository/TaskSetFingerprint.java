@@ -0,0 +1,13 @@
+package com.example.project.repository;
+
+/**
+ * Отпечаток набора задач для ETag: меняется при добавлении и удалении задачи (число и сумма id)
+ * и при любом ее изменении (сумма версий).
+ */
+public interface TaskSetFingerprint {
+    long getCount();
+
+    long getIdSum();
+
+    long getVersionSum();
+}
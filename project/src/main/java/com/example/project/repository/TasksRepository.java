@@ -1,15 +1,156 @@
 package com.example.project.repository;
 
+import com.example.project.dto.TaskSummaryDTO;
 import com.example.project.models.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TasksRepository extends JpaRepository<Task, Long> {
-    Page<Task> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
-    Page<Task> findByExecutorId(@Param("executorId") Long executorId, Pageable pageable);
-    Page<Task> findByTitleContaining(@Param("title") String title, Pageable pageable);
+
+public interface TasksRepository extends JpaRepository<Task, Long>, TasksRepositoryCustom {
+
+    /**
+     * Выборка для списков задач: только колонки таблицы tasks, без загрузки пользователей и комментариев.
+     */
+    String SUMMARY_SELECT = "select new com.example.project.dto.TaskSummaryDTO(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.author.id, e.id, t.version) " +
+            "from Task t left join t.executor e ";
+
+    /**
+     * Экранирует обратную косую черту, % и _ для подстановки в {@code like ... escape '\'}.
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Query(value = SUMMARY_SELECT + "where t.author.id = :authorId order by t.priority asc, t.id asc",
+            countQuery = "select count(t) from Task t where t.author.id = :authorId")
+    Page<TaskSummaryDTO> findByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "where t.executor.id = :executorId order by t.priority asc, t.id asc",
+            countQuery = "select count(t) from Task t where t.executor.id = :executorId")
+    Page<TaskSummaryDTO> findByExecutorId(@Param("executorId") Long executorId, Pageable pageable);
+
+    // Поиск по названию без учета регистра, как и в TaskSearchIndex; ilike обслуживается тем же
+    // триграммным индексом idx_tasks_title_trgm, что и like. Параметр title передается через escapeLike:
+    // % и _ из запроса пользователя ищутся как обычные символы.
+
+    @Query(value = SUMMARY_SELECT + "where t.title ilike concat('%', :title, '%') escape '\\' order by t.priority asc, t.id asc",
+            countQuery = "select count(t) from Task t where t.title ilike concat('%', :title, '%') escape '\\'")
+    Page<TaskSummaryDTO> findByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "where t.id = :id")
+    Optional<TaskSummaryDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "where t.id in :ids")
+    List<TaskSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + "order by t.id")
+    List<TaskSummaryDTO> findAllSummaries();
+
+    /**
+     * Все задачи, сгруппированные по статусу, исполнителю и приоритету: из одной выборки
+     * складываются все счетчики {@code TaskStatistics}.
+     */
+    @Query("select t.status as status, e.id as executorId, t.priority as priority, count(t) as count " +
+            "from Task t left join t.executor e group by t.status, e.id, t.priority")
+    List<TaskCountRow> countGroupedByStatusExecutorPriority();
+
+    // Отпечатки для ETag: читаются только из индексов (author_id/executor_id, priority, id) include (version)
+    // и (task_id, created_at, id), без загрузки и сериализации самих задач.
+
+    @Query("select count(t) as count, coalesce(sum(t.id), 0) as idSum, coalesce(sum(t.version), 0) as versionSum " +
+            "from Task t where t.author.id = :authorId")
+    TaskSetFingerprint fingerprintByAuthorId(@Param("authorId") Long authorId);
+
+    @Query("select count(t) as count, coalesce(sum(t.id), 0) as idSum, coalesce(sum(t.version), 0) as versionSum " +
+            "from Task t where t.executor.id = :executorId")
+    TaskSetFingerprint fingerprintByExecutorId(@Param("executorId") Long executorId);
+
+    @Query("select t.version as version, count(c.id) as commentCount, coalesce(max(c.id), 0) as lastCommentId " +
+            "from Task t left join Comment c on c.task = t where t.id = :id group by t.version")
+    Optional<TaskDetailsFingerprint> fingerprintDetailsById(@Param("id") Long id);
+
+    long countByAuthorId(Long authorId);
+    long countByExecutorId(Long executorId);
+
+    @Query("select count(t) from Task t where t.title ilike concat('%', :title, '%') escape '\\'")
+    long countByTitleContainingIgnoreCase(@Param("title") String title);
+
+    // Keyset-пагинация по (priority, id): условие priority >= :priority задает начало диапазона индекса,
+    // поэтому стоимость любой страницы не зависит от ее номера.
+
+    @Query(SUMMARY_SELECT + "where t.author.id = :authorId order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findFirstKeysetByAuthorId(@Param("authorId") Long authorId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where t.author.id = :authorId " +
+            "and t.priority >= :priority and (t.priority > :priority or t.id > :id) " +
+            "order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findKeysetByAuthorIdAfter(@Param("authorId") Long authorId,
+                                                   @Param("priority") int priority,
+                                                   @Param("id") Long id,
+                                                   Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where t.executor.id = :executorId order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findFirstKeysetByExecutorId(@Param("executorId") Long executorId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where t.executor.id = :executorId " +
+            "and t.priority >= :priority and (t.priority > :priority or t.id > :id) " +
+            "order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findKeysetByExecutorIdAfter(@Param("executorId") Long executorId,
+                                                     @Param("priority") int priority,
+                                                     @Param("id") Long id,
+                                                     Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where t.title ilike concat('%', :title, '%') escape '\\' order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findFirstKeysetByTitleContainingIgnoreCase(@Param("title") String title, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "where t.title ilike concat('%', :title, '%') escape '\\' " +
+            "and t.priority >= :priority and (t.priority > :priority or t.id > :id) " +
+            "order by t.priority asc, t.id asc")
+    List<TaskSummaryDTO> findKeysetByTitleContainingIgnoreCaseAfter(@Param("title") String title,
+                                                          @Param("priority") int priority,
+                                                          @Param("id") Long id,
+                                                          Pageable limit);
+
+    /**
+     * Меняет статус и/или приоритет одним UPDATE с проверкой версии и возвращает строку после изменения
+     * вместе с прежними значениями (самосоединение {@code old} видит строку до обновления).
+     * Пустой результат означает, что задачи нет или ее версия уже изменилась.
+     */
+    @Query(nativeQuery = true, value = "update tasks t set " +
+            "status = case when :setStatus then :status else t.status end, " +
+            "priority = case when :setPriority then :priority else t.priority end, " +
+            "version = t.version + 1 " +
+            "from tasks old " +
+            "where t.id = :id and t.version = :version and old.id = t.id " +
+            "returning t.id as \"id\", t.title as \"title\", t.description as \"description\", " +
+            "t.status as \"status\", t.priority as \"priority\", t.author_id as \"authorId\", " +
+            "t.executor_id as \"executorId\", t.version as \"version\", " +
+            "old.status as \"previousStatus\", old.priority as \"previousPriority\"")
+    List<TaskPatchResult> patchStatusAndPriority(@Param("id") Long id,
+                                                 @Param("version") long version,
+                                                 @Param("setStatus") boolean setStatus,
+                                                 @Param("status") String status,
+                                                 @Param("setPriority") boolean setPriority,
+                                                 @Param("priority") int priority);
+
+    /**
+     * Последовательно читает все задачи серверным курсором (forward-only, fetch size 500).
+     * Должен вызываться внутри транзакции, а полученный поток обязательно закрываться.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY_SELECT + "order by t.id")
+    Stream<TaskSummaryDTO> streamAllSummaries();
 }
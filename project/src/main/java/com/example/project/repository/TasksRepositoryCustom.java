@@ -0,0 +1,17 @@
+package com.example.project.repository;
+
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
+
+import java.util.List;
+
+public interface TasksRepositoryCustom {
+    /**
+     * Задачи, подходящие под все заданные фильтры, в порядке {@link TaskQueryDTO#sort()}.
+     *
+     * @param after ключи сортировки последней отданной задачи: (priority, id) или (id); null для первой страницы.
+     */
+    List<TaskSummaryDTO> findByQuery(TaskQueryDTO query, long[] after, int limit);
+
+    long countByQuery(TaskQueryDTO query);
+}
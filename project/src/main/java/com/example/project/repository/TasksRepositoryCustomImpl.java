@@ -0,0 +1,137 @@
+package com.example.project.repository;
+
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskSortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Поиск задач по любому сочетанию фильтров одним параметризованным JPQL-запросом.
+ * <p>
+ * Текст запроса зависит только от формы (какие фильтры заданы, сортировка, есть ли курсор), а не от значений,
+ * поэтому строится один раз на форму и берется из кэша; по тому же тексту Hibernate переиспользует
+ * разобранный запрос и SQL, а PostgreSQL — подготовленный оператор. Форм не больше 2^8, кэш не растет.
+ */
+public class TasksRepositoryCustomImpl implements TasksRepositoryCustom {
+
+    private static final int STATUS = 1;
+    private static final int MIN_PRIORITY = 1 << 1;
+    private static final int MAX_PRIORITY = 1 << 2;
+    private static final int AUTHOR = 1 << 3;
+    private static final int EXECUTOR = 1 << 4;
+    private static final int TITLE = 1 << 5;
+    private static final int SORT_BY_ID = 1 << 6;
+    private static final int AFTER = 1 << 7;
+
+    private final Map<Integer, String> selectByShape = new ConcurrentHashMap<>();
+    private final Map<Integer, String> countByShape = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDTO> findByQuery(TaskQueryDTO query, long[] after, int limit) {
+        boolean sortById = query.sort() == TaskSortKey.ID;
+        int shape = filterShape(query) | (sortById ? SORT_BY_ID : 0) | (after != null ? AFTER : 0);
+        String jpql = selectByShape.computeIfAbsent(shape, TasksRepositoryCustomImpl::selectQuery);
+
+        TypedQuery<TaskSummaryDTO> typedQuery = entityManager.createQuery(jpql, TaskSummaryDTO.class);
+        bindFilters(typedQuery, query);
+        if (after != null) {
+            if (sortById) {
+                typedQuery.setParameter("afterId", after[0]);
+            } else {
+                typedQuery.setParameter("afterPriority", (int) after[0]);
+                typedQuery.setParameter("afterId", after[1]);
+            }
+        }
+        return typedQuery.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countByQuery(TaskQueryDTO query) {
+        String jpql = countByShape.computeIfAbsent(filterShape(query),
+                shape -> "select count(t) from Task t " + where(shape));
+        TypedQuery<Long> typedQuery = entityManager.createQuery(jpql, Long.class);
+        bindFilters(typedQuery, query);
+        return typedQuery.getSingleResult();
+    }
+
+    private static int filterShape(TaskQueryDTO query) {
+        int shape = 0;
+        shape |= query.statuses() != null ? STATUS : 0;
+        shape |= query.minPriority() != null ? MIN_PRIORITY : 0;
+        shape |= query.maxPriority() != null ? MAX_PRIORITY : 0;
+        shape |= query.authorId() != null ? AUTHOR : 0;
+        shape |= query.executorId() != null ? EXECUTOR : 0;
+        shape |= query.title() != null ? TITLE : 0;
+        return shape;
+    }
+
+    private static String selectQuery(int shape) {
+        String orderBy = (shape & SORT_BY_ID) != 0 ? "order by t.id asc" : "order by t.priority asc, t.id asc";
+        return TasksRepository.SUMMARY_SELECT + where(shape) + orderBy;
+    }
+
+    // Условия на author_id/executor_id/status идут равенствами, поэтому с сортировкой по приоритету
+    // подходят индексы (author_id | executor_id | status, priority, id); курсор, как и в остальных
+    // keyset-запросах, задает начало диапазона по priority >= :afterPriority.
+    private static String where(int shape) {
+        StringJoiner where = new StringJoiner(" and ", "where ", " ").setEmptyValue("");
+        if ((shape & STATUS) != 0) {
+            where.add("t.status in :statuses");
+        }
+        if ((shape & MIN_PRIORITY) != 0) {
+            where.add("t.priority >= :minPriority");
+        }
+        if ((shape & MAX_PRIORITY) != 0) {
+            where.add("t.priority <= :maxPriority");
+        }
+        if ((shape & AUTHOR) != 0) {
+            where.add("t.author.id = :authorId");
+        }
+        if ((shape & EXECUTOR) != 0) {
+            where.add("t.executor.id = :executorId");
+        }
+        if ((shape & TITLE) != 0) {
+            where.add("t.title ilike concat('%', :title, '%') escape '\\'");
+        }
+        if ((shape & AFTER) != 0) {
+            where.add((shape & SORT_BY_ID) != 0
+                    ? "t.id > :afterId"
+                    : "t.priority >= :afterPriority and (t.priority > :afterPriority or t.id > :afterId)");
+        }
+        return where.toString();
+    }
+
+    private static void bindFilters(TypedQuery<?> typedQuery, TaskQueryDTO query) {
+        if (query.statuses() != null) {
+            typedQuery.setParameter("statuses", query.statuses());
+        }
+        if (query.minPriority() != null) {
+            typedQuery.setParameter("minPriority", query.minPriority());
+        }
+        if (query.maxPriority() != null) {
+            typedQuery.setParameter("maxPriority", query.maxPriority());
+        }
+        if (query.authorId() != null) {
+            typedQuery.setParameter("authorId", query.authorId());
+        }
+        if (query.executorId() != null) {
+            typedQuery.setParameter("executorId", query.executorId());
+        }
+        if (query.title() != null) {
+            typedQuery.setParameter("title", TasksRepository.escapeLike(query.title()));
+        }
+    }
+}
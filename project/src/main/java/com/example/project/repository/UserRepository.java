@@ -1,8 +1,14 @@
 package com.example.project.repository;
 
+import com.example.project.dto.UserSummaryDTO;
 import com.example.project.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface UserRepository extends JpaRepository<User,Long> {
-    User findByEmail(String email);
+import java.util.List;
+
+public interface UserRepository extends JpaRepository<User,Long>, UserRepositoryCustom {
+
+    @Query("select new com.example.project.dto.UserSummaryDTO(u.id, u.email, u.role) from User u order by u.id")
+    List<UserSummaryDTO> findAllSummaries();
 }
@@ -0,0 +1,7 @@
+package com.example.project.repository;
+
+import com.example.project.models.User;
+
+public interface UserRepositoryCustom {
+    User findByEmail(String email);
+}
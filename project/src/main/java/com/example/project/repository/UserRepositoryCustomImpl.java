@@ -0,0 +1,28 @@
+package com.example.project.repository;
+
+import com.example.project.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Поиск пользователя по email через natural id: повторные обращения обслуживаются
+ * кэшем второго уровня и не доходят до базы.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(email);
+    }
+}
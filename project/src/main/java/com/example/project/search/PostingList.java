@@ -0,0 +1,91 @@
+package com.example.project.search;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый отсортированный список ID задач поверх {@code long[]}: 8 байт на вхождение вместо
+ * 40–60 байт у {@code Set<Long>}. Изменение возвращает новый список, поэтому читатели обходят его без блокировок.
+ * <p>
+ * Добавление ID больше последнего (новые задачи, загрузка снимка по возрастанию id) пишет в запас массива
+ * за пределами {@code size}, который не видят прежние версии списка; вставка в середину и удаление копируют массив.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final long[] ids;
+    private final int size;
+
+    private PostingList(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    static PostingList of(long id) {
+        long[] ids = new long[INITIAL_CAPACITY];
+        ids[0] = id;
+        return new PostingList(ids, 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Вызывается только для актуальной версии списка (внутри compute по ключу), иначе запас массива
+     * мог бы достаться двум версиям.
+     */
+    PostingList add(long id) {
+        if (ids[size - 1] < id) {
+            if (size < ids.length) {
+                ids[size] = id;
+                return new PostingList(ids, size + 1);
+            }
+            long[] grown = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            grown[size] = id;
+            return new PostingList(grown, size + 1);
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return this;
+        }
+        int insertAt = -position - 1;
+        long[] copy = new long[size + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = id;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, size - insertAt);
+        return new PostingList(copy, size + 1);
+    }
+
+    /**
+     * @return список без {@code id} или {@code null}, если он стал пустым.
+     */
+    PostingList remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return this;
+        }
+        if (size == 1) {
+            return null;
+        }
+        long[] copy = new long[size - 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        System.arraycopy(ids, position + 1, copy, position, size - position - 1);
+        return new PostingList(copy, size - 1);
+    }
+
+    /**
+     * Копия без запаса емкости; после загрузки снимка списки больше не растут пачкой.
+     */
+    PostingList trimmed() {
+        return size == ids.length ? this : new PostingList(Arrays.copyOf(ids, size), size);
+    }
+}
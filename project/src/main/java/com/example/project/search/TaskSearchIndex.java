@@ -0,0 +1,336 @@
+package com.example.project.search;
+
+import com.example.project.event.TaskChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Инвертированный индекс задач в памяти процесса.
+ * Название индексируется триграммами (поиск подстроки, как у LIKE '%...%'), описание — словами.
+ * Найденные задачи ранжируются: совпадение в начале названия, затем в названии, затем в описании.
+ * <p>
+ * Память: списки вхождений хранят ID примитивами ({@link PostingList}, 8 байт на вхождение), плюс текст названия
+ * и описания каждой задачи. Задача с названием в 40 символов и 15 словами описания занимает около 0,8 КБ,
+ * то есть 1 млн задач — порядка 0,8 ГБ кучи. Если столько нет, индекс выключается через {@code app.search.enabled=false}.
+ */
+@Slf4j
+@Component
+public class TaskSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int SCORE_TITLE_PREFIX = 3;
+    private static final int SCORE_TITLE = 2;
+    private static final int SCORE_DESCRIPTION = 1;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingLong(Hit::taskId);
+
+    private final Map<String, PostingList> titleGrams = new ConcurrentHashMap<>();
+    private final Map<String, PostingList> descriptionTerms = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedTask> documents = new ConcurrentHashMap<>();
+    // Версии удаленных задач: событие об изменении, пришедшее после удаления, не должно вернуть задачу в индекс.
+    // Одна запись на задачу, удаленную с момента запуска; меняется только внутри compute по тому же ключу в documents.
+    private final Map<Long, Long> removedVersions = new ConcurrentHashMap<>();
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+
+    // Пока идет начальная загрузка, события копятся здесь и применяются поверх снимка в markReady:
+    // иначе задача, удаленная или измененная во время чтения таблицы, осталась бы в индексе в старом виде.
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private List<TaskChangedEvent> pendingEvents;
+
+    /**
+     * Индексирует задачу в указанной версии. События AFTER_COMMIT из разных потоков могут прийти не по порядку,
+     * поэтому версия, не новее уже примененной (или удаленной), игнорируется.
+     */
+    public void index(Long taskId, long version, String title, String description) {
+        documents.compute(taskId, (id, previous) -> {
+            if (previous != null && previous.version() >= version) {
+                return previous;
+            }
+            Long removedVersion = removedVersions.get(id);
+            if (removedVersion != null && removedVersion >= version) {
+                return previous;
+            }
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            IndexedTask document = new IndexedTask(version, normalize(title), normalize(description));
+            link(id, document);
+            return document;
+        });
+    }
+
+    /**
+     * Удаляет задачу, если в индексе нет ее более новой версии, и запоминает версию удаления.
+     */
+    public void remove(Long taskId, long version) {
+        documents.compute(taskId, (id, previous) -> {
+            removedVersions.merge(id, version, Math::max);
+            if (previous == null) {
+                return null;
+            }
+            if (previous.version() > version) {
+                return previous;
+            }
+            unlink(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Начинает заполнение индекса: события об изменении задач до {@link #markReady} или {@link #cancelLoading}
+     * не применяются сразу, а откладываются. Вызывается до начала чтения снимка таблицы.
+     */
+    public void startLoading() {
+        loadLock.lock();
+        try {
+            pendingEvents = new ArrayList<>();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Отменяет заполнение (например, при ошибке чтения): отложенные события отбрасываются,
+     * индекс остается неготовым, и поиск выполняется в базе.
+     */
+    public void cancelLoading() {
+        loadLock.lock();
+        try {
+            pendingEvents = null;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Применяет события, пришедшие во время загрузки, и помечает индекс заполненным. До этого момента
+     * {@link #search} возвращает пустой результат, и вызывающий код должен выполнять поиск в базе.
+     */
+    public void markReady() {
+        loadLock.lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.forEach(this::apply);
+                pendingEvents = null;
+            }
+            // Снимок добавлялся по возрастанию id в запас массивов; после загрузки запас не нужен.
+            titleGrams.replaceAll((key, ids) -> ids.trimmed());
+            descriptionTerms.replaceAll((key, ids) -> ids.trimmed());
+            ready = true;
+        } finally {
+            loadLock.unlock();
+        }
+        log.info("Task search index is ready: {} tasks, {} title trigrams, {} description terms",
+                documents.size(), titleGrams.size(), descriptionTerms.size());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ищет задачи по подстроке названия или словам описания.
+     *
+     * @return Страница ID задач в порядке ранжирования или пустой Optional, если индекс не может
+     * обслужить запрос (не заполнен или запрос короче триграммы).
+     */
+    public Optional<Page<Long>> search(String query, Pageable pageable) {
+        String normalized = normalize(query);
+        if (!ready || normalized.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+        int total = 0;
+
+        // Кандидаты идут по возрастанию id, поэтому совпадения по названию остаются отсортированными
+        // и проверяются ниже двоичным поиском.
+        long[] titleCandidates = intersect(titleGrams, grams(normalized));
+        long[] titleHits = new long[titleCandidates.length];
+        int titleHitCount = 0;
+        for (long taskId : titleCandidates) {
+            IndexedTask document = documents.get(taskId);
+            if (document == null || !document.title().contains(normalized)) {
+                continue;
+            }
+            titleHits[titleHitCount++] = taskId;
+            total++;
+            int score = document.title().startsWith(normalized) ? SCORE_TITLE_PREFIX : SCORE_TITLE;
+            offer(top, new Hit(taskId, score), limit);
+        }
+
+        for (long taskId : intersect(descriptionTerms, terms(query))) {
+            if (Arrays.binarySearch(titleHits, 0, titleHitCount, taskId) < 0 && documents.containsKey(taskId)) {
+                total++;
+                offer(top, new Hit(taskId, SCORE_DESCRIPTION), limit);
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Long> content = ranked.stream()
+                .skip(pageable.getOffset())
+                .map(Hit::taskId)
+                .toList();
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+                return;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+        apply(event);
+    }
+
+    private void apply(TaskChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.after().id(), event.after().version(),
+                    event.after().title(), event.after().description());
+            case DELETED -> remove(event.before().id(), event.before().version());
+            case COMMENTED -> {
+            }
+        }
+    }
+
+    private void offer(PriorityQueue<Hit> top, Hit hit, long limit) {
+        top.add(hit);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    private void link(Long taskId, IndexedTask document) {
+        for (String gram : grams(document.title())) {
+            addPosting(titleGrams, gram, taskId);
+        }
+        for (String term : terms(document.description())) {
+            addPosting(descriptionTerms, term, taskId);
+        }
+    }
+
+    private void unlink(Long taskId, IndexedTask document) {
+        for (String gram : grams(document.title())) {
+            removePosting(titleGrams, gram, taskId);
+        }
+        for (String term : terms(document.description())) {
+            removePosting(descriptionTerms, term, taskId);
+        }
+    }
+
+    private static void addPosting(Map<String, PostingList> postings, String key, long taskId) {
+        postings.compute(key, (k, ids) -> ids != null ? ids.add(taskId) : PostingList.of(taskId));
+    }
+
+    private static void removePosting(Map<String, PostingList> postings, String key, long taskId) {
+        postings.computeIfPresent(key, (k, ids) -> ids.remove(taskId));
+    }
+
+    /**
+     * Пересечение списков: обходится самый короткий, остальные проверяются двоичным поиском.
+     *
+     * @return ID задач по возрастанию.
+     */
+    private static long[] intersect(Map<String, PostingList> postings, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return new long[0];
+        }
+        List<PostingList> lists = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            PostingList ids = postings.get(key);
+            if (ids == null) {
+                return new long[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+
+        PostingList smallest = lists.get(0);
+        long[] result = new long[smallest.size()];
+        int count = 0;
+        for (int position = 0; position < smallest.size(); position++) {
+            long taskId = smallest.get(position);
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(taskId);
+            }
+            if (inAll) {
+                result[count++] = taskId;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    static Set<String> terms(String text) {
+        Set<String> terms = new HashSet<>();
+        Arrays.stream(TERM_SEPARATOR.split(normalize(text)))
+                .filter(term -> !term.isEmpty())
+                .forEach(terms::add);
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Слова описания не хранятся отдельным множеством: при переиндексации они заново выделяются из текста.
+     */
+    private record IndexedTask(long version, String title, String description) {
+    }
+
+    private record Hit(long taskId, int score) {
+    }
+}
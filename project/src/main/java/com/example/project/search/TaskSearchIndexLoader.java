@@ -0,0 +1,52 @@
+package com.example.project.search;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.repository.TasksRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Заполняет {@link TaskSearchIndex} при старте приложения одним потоковым чтением таблицы задач.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskSearchIndexLoader {
+
+    private final TaskSearchIndex taskSearchIndex;
+    private final TasksRepository tasksRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!taskSearchIndex.isEnabled()) {
+            log.info("Task search index is disabled, title search uses the database");
+            return;
+        }
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Изменения, закоммиченные во время чтения, придут событиями и будут применены поверх снимка.
+        taskSearchIndex.startLoading();
+        try {
+            transaction.executeWithoutResult(status -> {
+                try (Stream<TaskSummaryDTO> tasks = tasksRepository.streamAllSummaries()) {
+                    tasks.forEach(task -> taskSearchIndex.index(task.id(), task.version(), task.title(), task.description()));
+                }
+            });
+        } catch (RuntimeException e) {
+            taskSearchIndex.cancelLoading();
+            log.error("Task search index could not be loaded, title search uses the database", e);
+            return;
+        }
+        taskSearchIndex.markReady();
+        log.info("Task search index loaded in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.project.service;
+
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.event.TaskChangedEvent;
+import com.example.project.models.Comment;
+import com.example.project.models.Task;
+import com.example.project.models.User;
+import com.example.project.repository.TasksRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отложенная запись комментариев (write-behind) для потоковой загрузки, например от ботов.
+ *
+ * <p>Комментарий проверяется синхронно и ставится в ограниченную очередь; отдельный виртуальный поток
+ * забирает из нее до {@code batch-size} комментариев, дожидаясь новых не дольше {@code flush-interval},
+ * и сохраняет их одной транзакцией: идентификаторы берутся из пула {@code comments_seq}, вставки уходят
+ * JDBC-пакетами. Если пакет не записался (например, задачу успели удалить), комментарии сохраняются
+ * по одному, и ошибка достается только своему запросу.
+ *
+ * <p>Будущее из {@link #submit} завершается после коммита — это подтверждение записи. Вызывающий может
+ * его не ждать (fire-and-forget): тогда комментарий теряется при аварийной остановке до сброса очереди.
+ * Переполненная очередь отвечает 503 сразу. При выключенном режиме комментарий сохраняется
+ * тем же кодом в потоке запроса.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class CommentIngestionService {
+    private final TasksRepository tasksRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.comments.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.comments.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.comments.write-behind.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.comments.write-behind.flush-interval:PT0.005S}")
+    private Duration flushInterval;
+
+    private BlockingQueue<PendingComment> queue;
+    private TransactionTemplate transactionTemplate;
+    private Thread flusher;
+    private Counter rejected;
+    private DistributionSummary batchSizes;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rejected = meterRegistry.counter("comments.ingestion.rejected");
+        batchSizes = DistributionSummary.builder("comments.ingestion.batch.size")
+                .description("Комментарии, сохраненные одной транзакцией")
+                .register(meterRegistry);
+        Gauge.builder("comments.ingestion.queue", queue, BlockingQueue::size).register(meterRegistry);
+
+        running = true;
+        flusher = Thread.ofVirtual().name("comment-flusher").start(this::flushLoop);
+    }
+
+    /**
+     * Проверяет комментарий и ставит его в очередь на запись.
+     *
+     * @return будущее, завершающееся сохраненным комментарием после коммита или ошибкой записи.
+     * @throws ResponseStatusException 400 при пустом или слишком длинном тексте, 404 если задачи нет,
+     *                                 503 если очередь переполнена.
+     */
+    public CompletableFuture<CommentDTO> submit(Long taskId, Long authorId, String content) {
+        if (taskId == null || authorId == null || content == null || content.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid input data: taskId, authorId and content must not be null or empty");
+        }
+        if (content.length() > Comment.MAX_CONTENT_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Comment must not be longer than " + Comment.MAX_CONTENT_LENGTH + " characters");
+        }
+        if (!tasksRepository.existsById(taskId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task with id " + taskId + " not found");
+        }
+
+        PendingComment pending = new PendingComment(taskId, authorId, content, new CompletableFuture<>());
+        if (!enabled) {
+            flush(List.of(pending));
+            return pending.result();
+        }
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Comment queue is full, retry later");
+        }
+        return pending.result();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        // Новые комментарии больше не принимаются, уже принятые дописываются до остановки.
+        running = false;
+        flusher.join(Duration.ofSeconds(30));
+        // Комментарии, поставленные в очередь одновременно с остановкой, сохраняются здесь же.
+        List<PendingComment> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Прерывание означает остановку: дописываем все, что уже в очереди.
+                Thread.currentThread().interrupt();
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        try {
+            List<Comment> saved = transactionTemplate.execute(status -> persist(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(toDto(saved.get(i), batch.get(i)));
+            }
+            if (batchSizes != null) {
+                batchSizes.record(batch.size());
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} comments failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingComment pending : batch) {
+                flush(List.of(pending));
+            }
+        }
+    }
+
+    private List<Comment> persist(List<PendingComment> batch) {
+        List<Comment> comments = new ArrayList<>(batch.size());
+        Set<Long> taskIds = new HashSet<>();
+        for (PendingComment pending : batch) {
+            Comment comment = new Comment();
+            comment.setTask(entityManager.getReference(Task.class, pending.taskId()));
+            comment.setAuthor(entityManager.getReference(User.class, pending.authorId()));
+            comment.setContent(pending.content());
+            entityManager.persist(comment);
+            comments.add(comment);
+            taskIds.add(pending.taskId());
+        }
+        entityManager.flush();
+
+        // Одно событие на задачу в пакете; слушатели получат его после коммита.
+        for (TaskSummaryDTO task : tasksRepository.findSummariesByIdIn(taskIds)) {
+            eventPublisher.publishEvent(TaskChangedEvent.commented(task));
+        }
+        return comments;
+    }
+
+    private static CommentDTO toDto(Comment comment, PendingComment pending) {
+        return new CommentDTO(comment.getId(), pending.taskId(), pending.authorId(), comment.getContent(), comment.getCreatedAt());
+    }
+
+    private record PendingComment(Long taskId, Long authorId, String content, CompletableFuture<CommentDTO> result) {
+    }
+}
@@ -1,18 +1,33 @@
 package com.example.project.service;
 
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskSummaryDTO;
 import com.example.project.models.Comment;
 import com.example.project.models.Task;
 import com.example.project.models.User;
 import com.example.project.repository.CommentsRepository;
 import com.example.project.repository.TasksRepository;
+import com.example.project.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
 @RequiredArgsConstructor
 @Service
 public class CommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int LATEST_COMMENTS = 5;
+
     private final CommentsRepository commentsRepository;
     private final TasksRepository tasksRepository;
 
@@ -28,11 +43,83 @@ public class CommentService {
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task with id " + taskId + " not found"));
 
+        addComment(task, commentText, executor);
+    }
+
+    /**
+     * Добавляет комментарий к уже загруженной задаче, не обращаясь к базе повторно за задачей.
+     */
+    public Comment addComment(Task task, String commentText, User executor) {
+        if (task == null || commentText == null || commentText.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid input data: task and commentText must not be null or empty");
+        }
+
+        if (executor == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Executor cannot be null");
+        }
+
         Comment comment = new Comment();
         comment.setContent(commentText);
         comment.setTask(task);
         comment.setAuthor(executor);
 
-        commentsRepository.save(comment);
+        return commentsRepository.save(comment);
+    }
+
+    /**
+     * Страница комментариев задачи от новых к старым; {@code after} — курсор из предыдущей страницы.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentDTO> findComments(Long taskId, String after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Одна лишняя запись показывает, есть ли следующая страница.
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<CommentDTO> comments;
+        if (after == null) {
+            comments = commentsRepository.findFirstKeysetByTaskId(taskId, limit);
+        } else {
+            long[] keys = KeysetCursor.decode(after, 2);
+            comments = commentsRepository.findKeysetByTaskIdBefore(taskId, fromEpochMicros(keys[0]), keys[1], limit);
+        }
+        if (comments.isEmpty() && !tasksRepository.existsById(taskId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task with id " + taskId + " not found");
+        }
+
+        boolean hasNext = comments.size() > size;
+        List<CommentDTO> content = hasNext ? comments.subList(0, size) : comments;
+        String nextCursor = null;
+        if (hasNext) {
+            CommentDTO last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.encode(toEpochMicros(last.createdAt()), last.id());
+        }
+        return new CursorPageDTO<>(content, nextCursor, hasNext, null);
+    }
+
+    /**
+     * Дополняет задачу числом комментариев и последними {@value #LATEST_COMMENTS} из них.
+     * Вызывается внутри транзакции, поэтому только что добавленный комментарий уже учтен.
+     */
+    public TaskDetailsDTO withLatestComments(TaskSummaryDTO task) {
+        return new TaskDetailsDTO(task,
+                commentsRepository.countByTaskId(task.id()),
+                commentsRepository.findFirstKeysetByTaskId(task.id(), PageRequest.of(0, LATEST_COMMENTS)));
+    }
+
+    /**
+     * Удаляет все комментарии задачи одним запросом.
+     */
+    public void deleteByTask(Long taskId) {
+        commentsRepository.deleteByTaskId(taskId);
+    }
+
+    private static long toEpochMicros(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
     }
 }
@@ -0,0 +1,214 @@
+package com.example.project.service;
+
+import com.example.project.dto.TokenPairDTO;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.repository.UserRepository;
+import com.example.project.utils.BloomFilter;
+import com.example.project.utils.JWTUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Непрозрачные refresh-токены с ротацией: каждый токен одноразовый и при обмене заменяется новым
+ * из того же семейства. Новый access-токен выдается без BCrypt; пользователь перечитывается по id из кэша.
+ *
+ * <p>Хранятся только SHA-256 токенов. Использованные и отозванные токены попадают в фильтр Блума и
+ * компактное хранилище отозванных; повторное предъявление такого токена считается утечкой и отзывает
+ * все семейство. Просроченные записи удаляются по расписанию, фильтр Блума при этом перестраивается.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class RefreshTokenService {
+
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Clock clock;
+    private final JWTUtils jwtUtils;
+    private final UserRepository userRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${app.jwt.expiration-time.refresh-token:30d}")
+    private Duration refreshExpiredTime;
+
+    @Value("${app.jwt.refresh.bloom.expected-insertions:1000000}")
+    private long bloomExpectedInsertions;
+
+    @Value("${app.jwt.refresh.bloom.false-positive-probability:0.01}")
+    private double bloomFalsePositiveProbability;
+
+    private final Map<TokenHash, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, TokenHash> currentTokenByFamily = new ConcurrentHashMap<>();
+    private final Map<TokenHash, Revoked> revoked = new ConcurrentHashMap<>();
+    private final ReentrantLock revokedFilterLock = new ReentrantLock();
+    private volatile BloomFilter revokedFilter;
+
+    @PostConstruct
+    void init() {
+        revokedFilter = newFilter();
+    }
+
+    /**
+     * Выдает пару токенов после успешного входа по паролю; открывает новое семейство refresh-токенов.
+     */
+    public TokenPairDTO issue(UserDetailsEntity user) {
+        return new TokenPairDTO(jwtUtils.generateAccessToken(user),
+                newRefreshToken(UUID.randomUUID().toString(), user));
+    }
+
+    /**
+     * Обменивает refresh-токен на новую пару; предъявленный токен становится недействительным.
+     */
+    public TokenPairDTO refresh(String refreshToken) {
+        TokenHash hash = TokenHash.of(refreshToken);
+        Session session = sessions.remove(hash);
+        if (session == null) {
+            Revoked reused = findRevoked(hash);
+            if (reused != null) {
+                revokeFamily(reused.family());
+                log.warn("Refresh token reuse detected, token family revoked");
+            }
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        markRevoked(hash, session.family(), session.expiresAt());
+        if (!session.expiresAt().isAfter(Instant.now(clock))) {
+            currentTokenByFamily.remove(session.family(), hash);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expired");
+        }
+        UserDetailsEntity user = currentUser(session.user().getId());
+        if (user == null) {
+            currentTokenByFamily.remove(session.family(), hash);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User no longer exists");
+        }
+        return new TokenPairDTO(jwtUtils.generateAccessToken(user), newRefreshToken(session.family(), user));
+    }
+
+    /**
+     * Выход: отзывает семейство, к которому относится токен. Неизвестный токен игнорируется.
+     */
+    public void revoke(String refreshToken) {
+        Session session = sessions.get(TokenHash.of(refreshToken));
+        if (session != null) {
+            revokeFamily(session.family());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now(clock);
+        sessions.entrySet().removeIf(entry -> {
+            boolean expired = !entry.getValue().expiresAt().isAfter(now);
+            if (expired) {
+                currentTokenByFamily.remove(entry.getValue().family(), entry.getKey());
+            }
+            return expired;
+        });
+        revoked.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        // Из фильтра Блума удалять нельзя, поэтому он собирается заново из оставшихся отозванных токенов.
+        // Сборка и замена идут под той же блокировкой, что и markRevoked: иначе токен, отозванный между ними,
+        // попал бы только в старый фильтр и его повторное предъявление не было бы замечено.
+        revokedFilterLock.lock();
+        try {
+            BloomFilter rebuilt = newFilter();
+            revoked.keySet().forEach(hash -> rebuilt.put(hash.high(), hash.low()));
+            revokedFilter = rebuilt;
+        } finally {
+            revokedFilterLock.unlock();
+        }
+    }
+
+    /**
+     * Роль и само существование пользователя проверяются при каждом обмене, чтобы удаленный или пониженный
+     * в правах пользователь не получал access-токены со старой ролью до истечения refresh-токена.
+     * Пользователь по id читается из кэша второго уровня (регион users), без BCrypt и обычно без базы.
+     */
+    private UserDetailsEntity currentUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return userRepository.findById(userId)
+                .map(user -> new UserDetailsEntity(user.getId(), user.getEmail(), null, user.getRole().authorities()))
+                .orElse(null);
+    }
+
+    private String newRefreshToken(String family, UserDetailsEntity user) {
+        byte[] random = new byte[32];
+        secureRandom.nextBytes(random);
+        String token = TOKEN_ENCODER.encodeToString(random);
+        TokenHash hash = TokenHash.of(token);
+        sessions.put(hash, new Session(user.withoutPassword(), family, Instant.now(clock).plus(refreshExpiredTime)));
+        currentTokenByFamily.put(family, hash);
+        return token;
+    }
+
+    private void revokeFamily(String family) {
+        TokenHash current = currentTokenByFamily.remove(family);
+        if (current != null) {
+            Session session = sessions.remove(current);
+            if (session != null) {
+                markRevoked(current, family, session.expiresAt());
+            }
+        }
+    }
+
+    private Revoked findRevoked(TokenHash hash) {
+        // Фильтр Блума отсекает почти все неизвестные токены без обращения к хранилищу.
+        return revokedFilter.mightContain(hash.high(), hash.low()) ? revoked.get(hash) : null;
+    }
+
+    private void markRevoked(TokenHash hash, String family, Instant expiresAt) {
+        revokedFilterLock.lock();
+        try {
+            revoked.put(hash, new Revoked(family, expiresAt));
+            revokedFilter.put(hash.high(), hash.low());
+        } finally {
+            revokedFilterLock.unlock();
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(bloomExpectedInsertions, bloomFalsePositiveProbability);
+    }
+
+    private record Session(UserDetailsEntity user, String family, Instant expiresAt) {
+    }
+
+    private record Revoked(String family, Instant expiresAt) {
+    }
+
+    /**
+     * Первые 128 бит SHA-256 токена: ключ хранилищ и хеши для фильтра Блума.
+     */
+    private record TokenHash(long high, long low) {
+
+        static TokenHash of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenHash(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
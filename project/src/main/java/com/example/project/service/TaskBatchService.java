@@ -0,0 +1,136 @@
+package com.example.project.service;
+
+import com.example.project.dto.TaskBatchItemDTO;
+import com.example.project.dto.TaskBatchResultDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.event.TaskChangedEvent;
+import com.example.project.models.Task;
+import com.example.project.models.User;
+import com.example.project.repository.TasksRepository;
+import com.example.project.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+public class TaskBatchService {
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final TasksRepository tasksRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Создает и обновляет задачи одной транзакцией. Пользователи и обновляемые задачи загружаются
+     * двумя IN-запросами, а вставки и обновления уходят в базу JDBC-пакетами при flush.
+     * Ошибочные элементы пропускаются и попадают в отчет со статусом FAILED.
+     */
+    @Transactional
+    public List<TaskBatchResultDTO> saveAll(List<TaskBatchItemDTO> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch must contain from 1 to " + MAX_BATCH_SIZE + " tasks");
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (TaskBatchItemDTO item : items) {
+            if (item.getAuthorId() != null) {
+                userIds.add(item.getAuthorId());
+            }
+            if (item.getExecutorId() != null) {
+                userIds.add(item.getExecutorId());
+            }
+            if (item.getId() != null) {
+                taskIds.add(item.getId());
+            }
+        }
+
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Task> existingTasks = tasksRepository.findAllById(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[items.size()];
+        List<Task> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        List<TaskSummaryDTO> previousStates = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            TaskBatchItemDTO item = items.get(i);
+            String error = validate(item, users, existingTasks);
+            if (error != null) {
+                results[i] = TaskBatchResultDTO.failed(i, item.getId(), error);
+                continue;
+            }
+
+            Task task;
+            if (item.getId() == null) {
+                task = new Task();
+                task.setAuthor(users.get(item.getAuthorId()));
+                previousStates.add(null);
+            } else {
+                task = existingTasks.get(item.getId());
+                previousStates.add(TaskSummaryDTO.from(task));
+            }
+            task.setTitle(item.getTitle());
+            task.setDescription(item.getDescription());
+            task.setPriority(item.getPriority());
+            task.setStatus(item.getStatus());
+            if (item.getExecutorId() != null) {
+                task.setExecutor(users.get(item.getExecutorId()));
+            }
+            toSave.add(task);
+            savedIndexes.add(i);
+        }
+
+        List<Task> saved = tasksRepository.saveAll(toSave);
+        tasksRepository.flush();
+
+        for (int j = 0; j < saved.size(); j++) {
+            Task task = saved.get(j);
+            TaskSummaryDTO before = previousStates.get(j);
+            TaskSummaryDTO after = TaskSummaryDTO.from(task);
+            int index = savedIndexes.get(j);
+            if (before == null) {
+                results[index] = new TaskBatchResultDTO(index, task.getId(), TaskBatchResultDTO.Status.CREATED, null);
+                eventPublisher.publishEvent(TaskChangedEvent.created(after));
+            } else {
+                results[index] = new TaskBatchResultDTO(index, task.getId(), TaskBatchResultDTO.Status.UPDATED, null);
+                eventPublisher.publishEvent(TaskChangedEvent.updated(before, after));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private String validate(TaskBatchItemDTO item, Map<Long, User> users, Map<Long, Task> existingTasks) {
+        if (item.getTitle() == null || item.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (item.getId() != null) {
+            if (!existingTasks.containsKey(item.getId())) {
+                return "Task not found";
+            }
+        } else if (item.getAuthorId() == null || !users.containsKey(item.getAuthorId())) {
+            return "Author not found";
+        } else if (item.getExecutorId() == null) {
+            return "Executor not found";
+        }
+        if (item.getExecutorId() != null && !users.containsKey(item.getExecutorId())) {
+            return "Executor not found";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.project.service;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.repository.TasksRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+@Service
+public class TaskExportService {
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final TasksRepository tasksRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Пишет все задачи в формате NDJSON, читая их курсором из базы.
+     * В памяти одновременно находится не больше одной порции строк курсора.
+     */
+    @Transactional(readOnly = true)
+    public void exportTasks(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TaskSummaryDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        try (Stream<TaskSummaryDTO> tasks = tasksRepository.streamAllSummaries();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            int rows = 0;
+            Iterator<TaskSummaryDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            if (rows > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+    }
+}
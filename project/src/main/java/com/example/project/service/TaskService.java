@@ -1,92 +1,263 @@
 package com.example.project.service;
 
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskDetailsDTO;
+import com.example.project.dto.TaskPatchDTO;
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskSortKey;
 import com.example.project.enumiration.TaskStatus;
+import com.example.project.event.TaskChangedEvent;
 import com.example.project.models.Task;
 import com.example.project.models.User;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.repository.TaskPatchResult;
+import com.example.project.repository.TaskSetFingerprint;
 import com.example.project.repository.TasksRepository;
 import com.example.project.repository.UserRepository;
+import com.example.project.search.TaskSearchIndex;
+import com.example.project.utils.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.nio.file.AccessDeniedException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
+@Timed(value = "task.service", histogram = true)
 public class TaskService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TasksRepository tasksRepository;
     private final UserRepository userRepository;
     private final CommentService commentService;
+    private final CommentIngestionService commentIngestionService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
 
-    public Page<Task> findTasksByAuthor(Long authorId, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<TaskSummaryDTO> findTasksByAuthor(Long authorId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return tasksRepository.findByAuthorId(authorId, pageable);
     }
 
-    public Page<Task> findTasksByExecutor(Long executorId, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<TaskSummaryDTO> findTasksByExecutor(Long executorId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         return tasksRepository.findByExecutorId(executorId, pageable);
     }
 
-    public Page<Task> findTasksByTitle(String title, int page, int size) {
+    @Transactional(readOnly = true)
+    public Page<TaskSummaryDTO> findTasksByTitle(String title, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return tasksRepository.findByTitleContaining(title, pageable);
+        Optional<Page<Long>> hits = taskSearchIndex.search(title, pageable);
+        if (hits.isEmpty()) {
+            return tasksRepository.findByTitleContainingIgnoreCase(TasksRepository.escapeLike(title), pageable);
+        }
+
+        Page<Long> ids = hits.get();
+        Map<Long, TaskSummaryDTO> tasksById = tasksRepository.findSummariesByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(TaskSummaryDTO::id, Function.identity()));
+        List<TaskSummaryDTO> ranked = ids.getContent().stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskSummaryDTO> findTasksByAuthorAfter(Long authorId, String after, int size, boolean withTotal) {
+        Pageable limit = keysetLimit(size);
+        List<TaskSummaryDTO> tasks;
+        if (after == null) {
+            tasks = tasksRepository.findFirstKeysetByAuthorId(authorId, limit);
+        } else {
+            long[] keys = KeysetCursor.decode(after, 2);
+            tasks = tasksRepository.findKeysetByAuthorIdAfter(authorId, (int) keys[0], keys[1], limit);
+        }
+        return toCursorPage(tasks, size, withTotal ? tasksRepository.countByAuthorId(authorId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskSummaryDTO> findTasksByExecutorAfter(Long executorId, String after, int size, boolean withTotal) {
+        Pageable limit = keysetLimit(size);
+        List<TaskSummaryDTO> tasks;
+        if (after == null) {
+            tasks = tasksRepository.findFirstKeysetByExecutorId(executorId, limit);
+        } else {
+            long[] keys = KeysetCursor.decode(after, 2);
+            tasks = tasksRepository.findKeysetByExecutorIdAfter(executorId, (int) keys[0], keys[1], limit);
+        }
+        return toCursorPage(tasks, size, withTotal ? tasksRepository.countByExecutorId(executorId) : null);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskSummaryDTO> findTasksByTitleAfter(String title, String after, int size, boolean withTotal) {
+        Pageable limit = keysetLimit(size);
+        String pattern = TasksRepository.escapeLike(title);
+        List<TaskSummaryDTO> tasks;
+        if (after == null) {
+            tasks = tasksRepository.findFirstKeysetByTitleContainingIgnoreCase(pattern, limit);
+        } else {
+            long[] keys = KeysetCursor.decode(after, 2);
+            tasks = tasksRepository.findKeysetByTitleContainingIgnoreCaseAfter(pattern, (int) keys[0], keys[1], limit);
+        }
+        return toCursorPage(tasks, size, withTotal ? tasksRepository.countByTitleContainingIgnoreCase(pattern) : null);
+    }
+
+    /**
+     * Задачи по любому сочетанию фильтров с keyset-пагинацией; курсор хранит (priority, id) или (id)
+     * в зависимости от сортировки.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskSummaryDTO> queryTasks(TaskQueryDTO query, String after, int size, boolean withTotal) {
+        if (query.minPriority() != null && query.maxPriority() != null && query.minPriority() > query.maxPriority()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPriority must not be greater than maxPriority");
+        }
+        Pageable limit = keysetLimit(size);
+        boolean sortById = query.sort() == TaskSortKey.ID;
+        long[] keys = after == null ? null : KeysetCursor.decode(after, sortById ? 1 : 2);
+        List<TaskSummaryDTO> tasks = tasksRepository.findByQuery(query, keys, limit.getPageSize());
+        Function<TaskSummaryDTO, String> cursor = sortById
+                ? last -> KeysetCursor.encode(last.id())
+                : last -> KeysetCursor.encode(last.priority(), last.id());
+        return toCursorPage(tasks, size, withTotal ? tasksRepository.countByQuery(query) : null, cursor);
+    }
+
+    private Pageable keysetLimit(int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        // Одна лишняя запись показывает, есть ли следующая страница, без отдельного count(*).
+        return PageRequest.of(0, size + 1);
+    }
+
+    private CursorPageDTO<TaskSummaryDTO> toCursorPage(List<TaskSummaryDTO> tasks, int size, Long totalElements) {
+        return toCursorPage(tasks, size, totalElements, last -> KeysetCursor.encode(last.priority(), last.id()));
+    }
+
+    private CursorPageDTO<TaskSummaryDTO> toCursorPage(List<TaskSummaryDTO> tasks, int size, Long totalElements,
+                                                       Function<TaskSummaryDTO, String> cursor) {
+        boolean hasNext = tasks.size() > size;
+        List<TaskSummaryDTO> content = hasNext ? tasks.subList(0, size) : tasks;
+        String nextCursor = hasNext ? cursor.apply(content.get(content.size() - 1)) : null;
+        return new CursorPageDTO<>(content, nextCursor, hasNext, totalElements);
+    }
+
+    /**
+     * ETag списка задач автора (всех страниц сразу): одно index-only чтение вместо загрузки страницы.
+     */
+    @Transactional(readOnly = true)
+    public String tasksByAuthorETag(Long authorId) {
+        return eTag(tasksRepository.fingerprintByAuthorId(authorId));
+    }
+
+    @Transactional(readOnly = true)
+    public String tasksByExecutorETag(Long executorId) {
+        return eTag(tasksRepository.fingerprintByExecutorId(executorId));
+    }
+
+    /**
+     * ETag задачи с комментариями или null, если задачи нет.
+     */
+    @Transactional(readOnly = true)
+    public String taskDetailsETag(Long taskId) {
+        return tasksRepository.fingerprintDetailsById(taskId)
+                .map(f -> f.getVersion() + "-" + f.getCommentCount() + "-" + Long.toHexString(f.getLastCommentId()))
+                .orElse(null);
     }
 
-    public List<Task> findAllTasks() {
-        return tasksRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<TaskSummaryDTO> findAllTasks() {
+        return tasksRepository.findAllSummaries();
+    }
+
+    private static String eTag(TaskSetFingerprint fingerprint) {
+        return fingerprint.getCount() + "-" + Long.toHexString(fingerprint.getIdSum())
+                + "-" + Long.toHexString(fingerprint.getVersionSum());
     }
 
     private void checkExecutorAuthorization(Long executorId) throws AccessDeniedException {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
 
-        User user = userRepository.findByEmail(email);
-
-        if (!user.getId().equals(executorId)) {
+        if (!currentUserId(authentication).equals(executorId)) {
             throw new AccessDeniedException("You are not authorized to perform this action on this task");
         }
     }
 
+    private Long currentUserId(Authentication authentication) {
+        // ID приходит в токене; поиск по email остается только для токенов, выпущенных без claim uid.
+        if (authentication.getPrincipal() instanceof UserDetailsEntity user && user.getId() != null) {
+            return user.getId();
+        }
+        return userRepository.findByEmail(authentication.getName()).getId();
+    }
+
+    @Transactional
     public Task updateTaskStatus(Long taskId, Long executorId, TaskStatus status) throws AccessDeniedException {
         checkExecutorAuthorization(executorId);
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
         task.setStatus(status);
-        return tasksRepository.save(task);
+        return saveUpdated(before, task);
     }
 
+    @Transactional
     public Task updateTaskStatusAdmin(Long taskId, Long executorId, TaskStatus status) throws AccessDeniedException {
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
         task.setStatus(status);
-        return tasksRepository.save(task);
+        return saveUpdated(before, task);
     }
 
-    public Task addCommentToTask(Long taskId, Long executorId, String commentText) throws AccessDeniedException {
+    @Transactional
+    public TaskDetailsDTO addCommentToTask(Long taskId, Long executorId, String commentText) throws AccessDeniedException {
         checkExecutorAuthorization(executorId);
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
-        User executor = userRepository.findById(executorId)
-                .orElseThrow(() -> new IllegalArgumentException("Executor not found"));
+        // Исполнитель — это текущий пользователь, его существование уже подтверждено токеном.
+        User executor = userRepository.getReferenceById(executorId);
 
-        commentService.addComments(taskId, commentText, executor);
+        commentService.addComment(task, commentText, executor);
 
-        return tasksRepository.save(task);
+        TaskSummaryDTO summary = TaskSummaryDTO.from(task);
+        eventPublisher.publishEvent(TaskChangedEvent.commented(summary));
+        return commentService.withLatestComments(summary);
     }
 
-    public Task addCommentToTaskAdmin(Long taskId, Long executorId, String commentText) throws AccessDeniedException {
+    @Transactional
+    public TaskDetailsDTO addCommentToTaskAdmin(Long taskId, Long executorId, String commentText) throws AccessDeniedException {
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
@@ -94,12 +265,30 @@ public class TaskService {
         User executor = userRepository.findById(executorId)
                 .orElseThrow(() -> new IllegalArgumentException("Executor not found"));
 
-        commentService.addComments(taskId, commentText, executor);
+        commentService.addComment(task, commentText, executor);
 
-        return tasksRepository.save(task);
+        TaskSummaryDTO summary = TaskSummaryDTO.from(task);
+        eventPublisher.publishEvent(TaskChangedEvent.commented(summary));
+        return commentService.withLatestComments(summary);
     }
 
+    /**
+     * Ставит комментарий исполнителя в очередь отложенной записи; будущее завершается после коммита.
+     */
+    public CompletableFuture<CommentDTO> submitCommentToTask(Long taskId, Long executorId, String commentText) throws AccessDeniedException {
+        checkExecutorAuthorization(executorId);
+        return commentIngestionService.submit(taskId, executorId, commentText);
+    }
 
+    @Transactional(readOnly = true)
+    public TaskDetailsDTO getTaskDetails(Long taskId) {
+        TaskSummaryDTO task = tasksRepository.findSummaryById(taskId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task with id " + taskId + " not found"));
+        return commentService.withLatestComments(task);
+    }
+
+
+    @Transactional
     public Task addTask(String title, String description, Long executorId, Long authorId, int priority, TaskStatus status) {
 
         User executor = userRepository.findById(executorId)
@@ -116,30 +305,86 @@ public class TaskService {
         task.setAuthor(author);
         task.setExecutor(executor);
 
-        return tasksRepository.save(task);
+        Task saved = tasksRepository.save(task);
+        eventPublisher.publishEvent(TaskChangedEvent.created(TaskSummaryDTO.from(saved)));
+        return saved;
     }
 
+    @Transactional
     public void deleteTask(Long taskId){
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
+        commentService.deleteByTask(taskId);
         tasksRepository.delete(task);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(TaskSummaryDTO.from(task)));
     }
 
+    @Transactional
     public Task updateTaskPriority(Long taskId, Long executorId, int priority) throws AccessDeniedException {
         checkExecutorAuthorization(executorId);
 
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
         task.setPriority(priority);
-        return tasksRepository.save(task);
+        return saveUpdated(before, task);
     }
 
+    @Transactional
+    public TaskSummaryDTO patchTask(Long taskId, Long executorId, TaskPatchDTO patch) throws AccessDeniedException {
+        checkExecutorAuthorization(executorId);
+        return patchTaskAdmin(taskId, patch);
+    }
+
+    /**
+     * Меняет статус и/или приоритет одним UPDATE без предварительной загрузки задачи.
+     * Если задача уже изменена кем-то другим (версия не совпала), возвращает 409.
+     */
+    @Transactional
+    public TaskSummaryDTO patchTaskAdmin(Long taskId, TaskPatchDTO patch) {
+        if (patch.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Version is required");
+        }
+        if (patch.getStatus() == null && patch.getPriority() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update: status or priority is required");
+        }
+
+        List<TaskPatchResult> rows = tasksRepository.patchStatusAndPriority(
+                taskId,
+                patch.getVersion(),
+                patch.getStatus() != null,
+                patch.getStatus() != null ? patch.getStatus().name() : "",
+                patch.getPriority() != null,
+                patch.getPriority() != null ? patch.getPriority() : 0
+        );
+
+        if (rows.isEmpty()) {
+            if (!tasksRepository.existsById(taskId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Task with id " + taskId + " not found");
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Task with id " + taskId + " was modified concurrently");
+        }
+
+        evictFromSecondLevelCacheAfterCommit(taskId);
+
+        TaskPatchResult row = rows.get(0);
+        TaskSummaryDTO after = new TaskSummaryDTO(row.getId(), row.getTitle(), row.getDescription(), row.getStatus(),
+                row.getPriority(), row.getAuthorId(), row.getExecutorId(), row.getVersion());
+        TaskSummaryDTO before = new TaskSummaryDTO(row.getId(), row.getTitle(), row.getDescription(), row.getPreviousStatus(),
+                row.getPreviousPriority(), row.getAuthorId(), row.getExecutorId(), row.getVersion() - 1);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, after));
+        return after;
+    }
+
+    @Transactional
     public Task assignExecutorToTask(Long taskId, Long executorId) throws AccessDeniedException {
-        findByIdTask(taskId).setExecutor(findByIdUser(executorId));
-        return tasksRepository.save(findByIdTask(taskId));
+        Task task = findByIdTask(taskId);
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
+        task.setExecutor(findByIdUser(executorId));
+        return saveUpdated(before, task);
     }
 
     public Task findByIdTask(Long taskId) throws AccessDeniedException {
@@ -152,32 +397,52 @@ public class TaskService {
                 .orElseThrow(() -> new IllegalArgumentException("Executor not found"));
     }
 
+    @Transactional
     public Task updateTask(Long taskId, String title, String description, int priority, TaskStatus status, Long executorId) throws AccessDeniedException {
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
         checkExecutorAuthorization(executorId);
 
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
         task.setTitle(title);
         task.setDescription(description);
         task.setPriority(priority);
         task.setStatus(status);
 
-        return tasksRepository.save(task);
+        return saveUpdated(before, task);
     }
 
+    @Transactional
     public Task updateTaskAdmin(Long taskId, String title, String description, int priority, TaskStatus status, Long executorId) throws AccessDeniedException {
         Task task = tasksRepository.findById(taskId)
                 .orElseThrow(() -> new IllegalArgumentException("Task not found"));
 
+        TaskSummaryDTO before = TaskSummaryDTO.from(task);
         task.setTitle(title);
         task.setDescription(description);
         task.setPriority(priority);
         task.setStatus(status);
 
-        return tasksRepository.save(task);
+        return saveUpdated(before, task);
     }
 
+    /**
+     * Нативный UPDATE проходит мимо кэша второго уровня, поэтому запись задачи удаляется из него вручную.
+     */
+    private void evictFromSecondLevelCacheAfterCommit(Long taskId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Task.class, taskId);
+            }
+        });
+    }
 
-
+    private Task saveUpdated(TaskSummaryDTO before, Task task) {
+        // Flush увеличивает @Version до публикации события: подписчики сравнивают версии и отбрасывают устаревшие.
+        Task saved = tasksRepository.saveAndFlush(task);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(before, TaskSummaryDTO.from(saved)));
+        return saved;
+    }
 }
@@ -1,12 +1,14 @@
 package com.example.project.service;
 
 import com.example.project.dto.UserDTO;
+import com.example.project.dto.UserSummaryDTO;
 import com.example.project.models.User;
 import com.example.project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -17,7 +19,7 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
     public User saveUser(User user) {
         if (user.getEmail() == null || user.getEmail().isEmpty()) {
@@ -45,8 +47,9 @@ public class UserService {
         return user;
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> findAll() {
+        return userRepository.findAllSummaries();
     }
 
     public User findUserById(Long id) {
@@ -0,0 +1,274 @@
+package com.example.project.stats;
+
+import com.example.project.dto.TaskStatisticsDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.event.TaskChangedEvent;
+import com.example.project.repository.TaskCountRow;
+import com.example.project.repository.TasksRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Счетчики задач по статусу, исполнителю и приоритету в памяти процесса.
+ *
+ * <p>При старте заполняются одним GROUP BY, дальше меняются по {@link TaskChangedEvent} после коммита:
+ * состояние {@code before} вычитается, {@code after} прибавляется. Счетчики — {@link LongAdder}, поэтому
+ * параллельные записи не спорят за одну ячейку, а чтение не обращается к базе. Изменения мимо
+ * {@code TaskService} (SQL вручную, другой экземпляр приложения) исправляет периодическая сверка,
+ * которая заново выполняет тот же GROUP BY и подменяет счетчики целиком.
+ *
+ * <p>Пока выполняется GROUP BY (при загрузке и при сверке), события не применяются, а откладываются
+ * и затем применяются поверх результата запроса — так же, как поисковый индекс поступает при загрузке.
+ * Событие, закоммиченное в короткий промежуток между началом откладывания и снимком запроса,
+ * будет учтено дважды; такое расхождение исправит следующая сверка.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskStatistics {
+
+    static final String NO_STATUS = "NONE";
+
+    private final TasksRepository tasksRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Counters counters = new Counters();
+    private volatile boolean ready;
+    private Counter drift;
+
+    // События применяются под read-блокировкой и не мешают друг другу; write-блокировка нужна только
+    // для начала откладывания и подмены счетчиков, чтобы ни одно событие не попало в уже замененный объект.
+    private final ReentrantReadWriteLock countersLock = new ReentrantReadWriteLock();
+    private Queue<TaskChangedEvent> pendingEvents;
+
+    @PostConstruct
+    void init() {
+        drift = Counter.builder("task.stats.reconcile.drift")
+                .description("Расхождение счетчиков с базой, исправленное сверкой")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Начальное заполнение. События, пришедшие до вызова, уже видны запросу и применяются к пустым
+     * счетчикам, которые здесь заменяются; события во время запроса откладываются и применяются поверх.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Counters loaded = queryDeferringEvents();
+        countersLock.writeLock().lock();
+        try {
+            applyPending(loaded);
+            counters = loaded;
+            ready = true;
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+        log.info("Task statistics loaded: {} tasks", loaded.total.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT10M}",
+            initialDelayString = "${app.stats.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+        Counters actual = queryDeferringEvents();
+        long difference;
+        countersLock.writeLock().lock();
+        try {
+            // Отложенные события не применены ни к старым счетчикам, ни к результату запроса,
+            // поэтому расхождение считается до их применения.
+            difference = actual.difference(counters);
+            applyPending(actual);
+            counters = actual;
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+        if (difference > 0) {
+            drift.increment(difference);
+            log.warn("Task statistics drifted by {} from the database, counters replaced", difference);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskSummaryDTO before = event.before();
+        TaskSummaryDTO after = event.after();
+        if (before != null && after != null && sameCell(before, after)) {
+            return;
+        }
+        countersLock.readLock().lock();
+        try {
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            } else {
+                apply(counters, event);
+            }
+        } finally {
+            countersLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Снимок счетчиков; время не зависит от числа задач, только от числа исполнителей и приоритетов.
+     */
+    public TaskStatisticsDTO snapshot() {
+        return counters.snapshot();
+    }
+
+    /**
+     * Выполняет GROUP BY, откладывая события на время запроса. Вызывающий код применяет их к результату
+     * через {@link #applyPending} под write-блокировкой; при ошибке запроса они применяются к текущим счетчикам.
+     */
+    private Counters queryDeferringEvents() {
+        countersLock.writeLock().lock();
+        try {
+            pendingEvents = new ConcurrentLinkedQueue<>();
+        } finally {
+            countersLock.writeLock().unlock();
+        }
+        try {
+            return query();
+        } catch (RuntimeException e) {
+            countersLock.writeLock().lock();
+            try {
+                applyPending(counters);
+            } finally {
+                countersLock.writeLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void applyPending(Counters target) {
+        if (pendingEvents != null) {
+            pendingEvents.forEach(event -> apply(target, event));
+            pendingEvents = null;
+        }
+    }
+
+    private static void apply(Counters target, TaskChangedEvent event) {
+        TaskSummaryDTO before = event.before();
+        TaskSummaryDTO after = event.after();
+        if (before != null) {
+            target.add(before.status(), before.executorId(), before.priority(), -1);
+        }
+        if (after != null) {
+            target.add(after.status(), after.executorId(), after.priority(), 1);
+        }
+    }
+
+    private Counters query() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        List<TaskCountRow> rows = transaction.execute(status -> tasksRepository.countGroupedByStatusExecutorPriority());
+        Counters loaded = new Counters();
+        for (TaskCountRow row : rows) {
+            loaded.add(row.getStatus(), row.getExecutorId(), row.getPriority(), row.getCount());
+        }
+        return loaded;
+    }
+
+    private static boolean sameCell(TaskSummaryDTO before, TaskSummaryDTO after) {
+        return before.status() == after.status()
+                && before.priority() == after.priority()
+                && Objects.equals(before.executorId(), after.executorId());
+    }
+
+    private static String statusKey(TaskStatus status) {
+        return status != null ? status.name() : NO_STATUS;
+    }
+
+    private record ExecutorStatus(Long executorId, String status) {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        private final Map<Integer, LongAdder> byPriority = new ConcurrentHashMap<>();
+        private final Map<ExecutorStatus, LongAdder> byExecutorStatus = new ConcurrentHashMap<>();
+
+        void add(TaskStatus status, Long executorId, int priority, long delta) {
+            String key = statusKey(status);
+            total.add(delta);
+            byStatus.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            byPriority.computeIfAbsent(priority, k -> new LongAdder()).add(delta);
+            byExecutorStatus.computeIfAbsent(new ExecutorStatus(executorId, key), k -> new LongAdder()).add(delta);
+        }
+
+        TaskStatisticsDTO snapshot() {
+            Map<String, Long> statuses = nonZero(byStatus);
+            Map<Integer, Long> priorities = nonZero(byPriority);
+
+            Map<Long, Map<String, Long>> executors = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+            byExecutorStatus.forEach((key, adder) -> {
+                long count = adder.sum();
+                if (count != 0) {
+                    executors.computeIfAbsent(key.executorId(), k -> new TreeMap<>()).put(key.status(), count);
+                }
+            });
+            List<TaskStatisticsDTO.ExecutorStatistics> byExecutor = new ArrayList<>(executors.size());
+            executors.forEach((executorId, counts) -> byExecutor.add(new TaskStatisticsDTO.ExecutorStatistics(
+                    executorId, counts.values().stream().mapToLong(Long::longValue).sum(), counts)));
+
+            return new TaskStatisticsDTO(total.sum(), statuses, priorities, byExecutor);
+        }
+
+        /**
+         * Сумма модулей разниц по ячейкам исполнитель/статус; 0 означает полное совпадение.
+         * Приоритеты не учитываются: каждая задача лежит и в ячейке исполнитель/статус, и в ячейке приоритета,
+         * поэтому сумма по обоим измерениям считала бы одну и ту же задачу дважды.
+         */
+        long difference(Counters other) {
+            Set<ExecutorStatus> keys = new HashSet<>(byExecutorStatus.keySet());
+            keys.addAll(other.byExecutorStatus.keySet());
+            long difference = 0;
+            for (ExecutorStatus key : keys) {
+                difference += Math.abs(sum(byExecutorStatus.get(key)) - sum(other.byExecutorStatus.get(key)));
+            }
+            return difference;
+        }
+
+        private static long sum(LongAdder adder) {
+            return adder != null ? adder.sum() : 0;
+        }
+
+        private static <K extends Comparable<K>> Map<K, Long> nonZero(Map<K, LongAdder> adders) {
+            Map<K, Long> result = new TreeMap<>();
+            adders.forEach((key, adder) -> {
+                long count = adder.sum();
+                if (count != 0) {
+                    result.put(key, count);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.project.stream;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.event.TaskChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Рассылает изменения задач подписчикам Server-Sent Events после коммита транзакции.
+ *
+ * <p>Событие сериализуется один раз и кладется в кольцевой буфер последних событий и в ограниченные
+ * очереди подходящих подписчиков; поток, закоммитивший изменение, никогда не ждет сети. Отправкой
+ * занимается отдельный виртуальный поток на подписчика, пока у того есть события. Подписчик, чья очередь
+ * переполнилась, отключается и переподключается с {@code Last-Event-ID}: пропущенное досылается из
+ * буфера, а если буфер уже ушел дальше, приходит событие {@code reset} и клиент перечитывает данные сам.
+ * Обращений к базе нет.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TaskEventBroadcaster {
+
+    static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.stream.replay-buffer-size:1024}")
+    private int replayBufferSize;
+
+    @Value("${app.stream.subscriber-queue-capacity:256}")
+    private int subscriberQueueCapacity;
+
+    @Value("${app.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final LongAdder dropped = new LongAdder();
+
+    // Кольцевой буфер и счетчик id защищены publishLock.
+    private StreamEvent[] replayBuffer;
+    private long lastEventId;
+
+    @PostConstruct
+    void init() {
+        replayBuffer = new StreamEvent[replayBufferSize];
+        Gauge.builder("task.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+        FunctionCounter.builder("task.stream.dropped", dropped, LongAdder::sum)
+                .description("Подписчики, отключенные из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Открывает поток событий. {@code executorId} и {@code authorId} ограничивают поток задачами
+     * исполнителя или автора (до или после изменения); {@code lastEventId} — id последнего полученного события.
+     */
+    public SseEmitter subscribe(Long executorId, Long authorId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, executorId, authorId, subscriberQueueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        publishLock.lock();
+        try {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        publishLock.lock();
+        try {
+            long id = ++lastEventId;
+            TaskSummaryDTO task = event.after() != null ? event.after() : event.before();
+            StreamEvent streamEvent = new StreamEvent(id, event, serialize(event.type(), task));
+            if (replayBuffer.length > 0) {
+                replayBuffer[(int) (id % replayBuffer.length)] = streamEvent;
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.matches(event)) {
+                    subscriber.offer(streamEvent);
+                }
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    @Scheduled(fixedRateString = "${app.stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // Полная очередь и так будет отправлена, heartbeat в нее не нужен.
+            subscriber.queue.offer(StreamEvent.HEARTBEAT);
+            schedule(subscriber);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void replay(Subscriber subscriber, long after) {
+        long oldest = Math.max(1, lastEventId - replayBuffer.length + 1);
+        // Пропуск старше буфера или id из прошлого запуска приложения: досылать нечего, клиент перечитывает сам.
+        if (after < oldest - 1 || after > lastEventId) {
+            subscriber.offer(StreamEvent.RESET);
+            return;
+        }
+        for (long id = after + 1; id <= lastEventId; id++) {
+            StreamEvent event = replayBuffer[(int) (id % replayBuffer.length)];
+            if (event != null && event.id() == id && subscriber.matches(event.source())) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.queue.isEmpty() || subscriber.overflowed) {
+            if (subscriber.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.overflowed) {
+                dropped.increment();
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                return;
+            }
+            StreamEvent event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event.toSse());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Клиент отключился; emitter сам вызовет onError/onCompletion.
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Событие могло прийти между последним poll и сбросом флага.
+        schedule(subscriber);
+    }
+
+    private String serialize(TaskChangedEvent.Type type, TaskSummaryDTO task) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("type", type, "task", task));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize task event", e);
+        }
+    }
+
+    private record StreamEvent(long id, TaskChangedEvent source, String data) {
+
+        static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+        static final StreamEvent RESET = new StreamEvent(0, null, "{}");
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            if (this == RESET) {
+                return SseEmitter.event().name(RESET_EVENT).data(data, MediaType.APPLICATION_JSON);
+            }
+            return SseEmitter.event()
+                    .id(Long.toString(id))
+                    .name(source.type().name())
+                    .data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long executorId;
+        private final Long authorId;
+        private final Queue<StreamEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, Long executorId, Long authorId, int capacity) {
+            this.emitter = emitter;
+            this.executorId = executorId;
+            this.authorId = authorId;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(StreamEvent event) {
+            if (!overflowed && !queue.offer(event)) {
+                overflowed = true;
+            }
+        }
+
+        boolean matches(TaskChangedEvent event) {
+            return (executorId == null || involves(event, executorId, TaskSummaryDTO::executorId))
+                    && (authorId == null || involves(event, authorId, TaskSummaryDTO::authorId));
+        }
+
+        private static boolean involves(TaskChangedEvent event, Long userId,
+                                        Function<TaskSummaryDTO, Long> key) {
+            return (event.before() != null && Objects.equals(userId, key.apply(event.before())))
+                    || (event.after() != null && Objects.equals(userId, key.apply(event.after())));
+        }
+    }
+}
@@ -3,25 +3,25 @@ package com.example.project.utils;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.example.project.enumiration.Role;
 import com.example.project.models.UserDetailsEntity;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.stereotype.Component;
 
-import javax.lang.model.type.ExecutableType;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 
 @RequiredArgsConstructor
@@ -36,20 +36,42 @@ public class JWTUtils {
 
     private static final String PERMISSIONS_CLAIMS = "permissions";
 
+    private static final String USER_ID_CLAIM = "uid";
+
     private final Clock clock;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private Algorithm algorithm;
+
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        // Algorithm и JWTVerifier потокобезопасны, поэтому создаются один раз на все запросы.
+        verifier = ((com.auth0.jwt.JWTVerifier.BaseVerification) JWT.require(algorithm)).build(clock);
+    }
+
     public String generateAccessToken(UserDetailsEntity user) {
         return JWT.create()
                 .withSubject(user.getUsername())
                 .withExpiresAt(Instant.now(clock).plus(accessExpiredTime))
+                .withClaim(USER_ID_CLAIM, user.getId())
                 .withClaim(PERMISSIONS_CLAIMS,
                         user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
-                .sign(Algorithm.HMAC256(secret));
+                .sign(algorithm);
     }
 
     public PreAuthenticatedAuthenticationToken getAuthentication(String token) {
-        UserDetailsEntity user = extractUserDetails(token);
-        return new PreAuthenticatedAuthenticationToken(user, null, user.getAuthorities());
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+        if (verified == null) {
+            verified = verify(token);
+            verifiedTokenCache.put(token, verified);
+        }
+        // Токен аутентификации изменяем (setAuthenticated, setDetails), поэтому у каждого запроса свой.
+        UserDetailsEntity user = new UserDetailsEntity(verified.userId(), verified.email(), null, verified.authorities());
+        return new PreAuthenticatedAuthenticationToken(user, null, verified.authorities());
     }
 
     public boolean isValidToken(String token) {
@@ -62,23 +84,36 @@ public class JWTUtils {
     }
 
     public DecodedJWT validateToken(String token) {
-        JWTVerifier verifier = JWT.require(Algorithm.HMAC256(secret.getBytes())).build();
         return verifier.verify(token);
     }
 
-    private UserDetailsEntity extractUserDetails(String token) {
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
         DecodedJWT decodedJWT = validateToken(token);
         String username = decodedJWT.getSubject();
 
-        if (decodedJWT.getClaim(PERMISSIONS_CLAIMS).isMissing()) {
+        Claim permissionsClaim = decodedJWT.getClaim(PERMISSIONS_CLAIMS);
+        if (permissionsClaim.isMissing()) {
             throw new JWTVerificationException("invalid token");
         }
 
-        String[] permissions = decodedJWT.getClaim(PERMISSIONS_CLAIMS).asArray(String.class);
-        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        Long userId = decodedJWT.getClaim(USER_ID_CLAIM).asLong();
 
-        Arrays.stream(permissions).forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+        return new VerifiedTokenCache.VerifiedToken(userId, username, authorities(permissionsClaim.asList(String.class)),
+                decodedJWT.getExpiresAtAsInstant());
+    }
 
-        return new UserDetailsEntity(username, null, new HashSet<>(authorities));
+    /**
+     * Токен с одной ролью получает общий неизменяемый набор прав этой роли, без новых коллекций на запрос.
+     */
+    private static Set<SimpleGrantedAuthority> authorities(List<String> permissions) {
+        if (permissions.size() == 1) {
+            Role role = Role.fromAuthority(permissions.get(0));
+            if (role != null) {
+                return role.authorities();
+            }
+        }
+        return permissions.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableSet());
     }
 }
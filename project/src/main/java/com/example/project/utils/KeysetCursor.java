@@ -0,0 +1,48 @@
+package com.example.project.utils;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Кодирование непрозрачных курсоров для keyset-пагинации.
+ * Курсор хранит значения ключей сортировки последней отданной записи.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(long... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long[] decode(String cursor, int expectedKeys) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != expectedKeys) {
+                throw new IllegalArgumentException("Unexpected number of cursor keys");
+            }
+            long[] keys = new long[expectedKeys];
+            for (int i = 0; i < expectedKeys; i++) {
+                keys[i] = Long.parseLong(parts[i]);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+    }
+}
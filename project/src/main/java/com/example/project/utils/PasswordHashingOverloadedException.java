@@ -0,0 +1,18 @@
+package com.example.project.utils;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Очередь хеширования паролей заполнена или ожидание результата превысило таймаут.
+ * Отдается клиенту как 503, а не как неверный пароль.
+ */
+public class PasswordHashingOverloadedException extends AuthenticationServiceException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.project.utils;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш уже проверенных access-токенов. Ключ — SHA-256 от токена, запись живет до {@code exp} токена.
+ * Повторный запрос с тем же токеном не проверяет HMAC-подпись и не разбирает claims.
+ * Хранятся только неизменяемые данные токена: объект аутентификации изменяем и создается заново на каждый запрос.
+ */
+@RequiredArgsConstructor
+@Component
+public class VerifiedTokenCache {
+
+    private static final MessageDigest SHA_256_PROTOTYPE = sha256();
+
+    private final Clock clock;
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedToken get(String token) {
+        String key = key(token);
+        VerifiedToken entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.expiresAt().isAfter(Instant.now(clock))) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxSize <= 0 || verified.expiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evictExpired();
+        }
+        if (entries.size() >= maxSize) {
+            evictArbitrary(entries.size() - maxSize + 1);
+        }
+        entries.put(key(token), verified);
+    }
+
+    public void evictExpired() {
+        Instant now = Instant.now(clock);
+        entries.entrySet().removeIf(entry -> {
+            boolean expired = !entry.getValue().expiresAt().isAfter(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    private void evictArbitrary(int count) {
+        Iterator<String> keys = entries.keySet().iterator();
+        for (int i = 0; i < count && keys.hasNext(); i++) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Клон заранее созданного MessageDigest дешевле поиска провайдера в {@code getInstance} и, в отличие от
+     * ThreadLocal, не создает экземпляр на каждый виртуальный поток.
+     */
+    private static String key(String token) {
+        try {
+            MessageDigest digest = (MessageDigest) SHA_256_PROTOTYPE.clone();
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Проверенное содержимое токена.
+     *
+     * @param authorities неизменяемый набор прав.
+     * @param expiresAt   {@code exp} токена; после него запись не выдается.
+     */
+    public record VerifiedToken(Long userId, String email, Set<SimpleGrantedAuthority> authorities, Instant expiresAt) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+}
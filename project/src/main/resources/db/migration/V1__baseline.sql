@@ -0,0 +1,27 @@
+-- Схема в том виде, в каком ее создавал Hibernate до перехода на миграции.
+-- На существующих базах не выполняется: spring.flyway.baseline-on-migrate помечает ее как примененную.
+
+create table users (
+    id       bigint generated by default as identity primary key,
+    email    varchar(255) not null unique,
+    password varchar(255) not null,
+    role     varchar(255)
+);
+
+create table tasks (
+    id          bigint generated by default as identity primary key,
+    title       varchar(255)  not null,
+    description varchar(1000),
+    status      varchar(255),
+    priority    integer       not null,
+    author_id   bigint        not null constraint fk_tasks_author references users,
+    executor_id bigint        constraint fk_tasks_executor references users
+);
+
+create table comments (
+    id         bigint generated by default as identity primary key,
+    task_id    bigint       not null constraint fk_comments_task references tasks,
+    author_id  bigint       not null constraint fk_comments_author references users,
+    content    varchar(500) not null,
+    created_at timestamp(6)
+);
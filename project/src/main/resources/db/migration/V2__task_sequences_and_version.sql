@@ -0,0 +1,15 @@
+-- Задачи и комментарии получают id из последовательностей с шагом 50 (allocationSize в сущностях),
+-- чтобы Hibernate мог пакетировать вставки; у задач появляется версия для оптимистической блокировки.
+-- Скрипт идемпотентен: часть баз уже получила эти объекты вручную.
+
+create sequence if not exists tasks_seq increment by 50;
+create sequence if not exists comments_seq increment by 50;
+
+alter table tasks alter column id drop identity if exists;
+alter table comments alter column id drop identity if exists;
+
+-- Пул Hibernate выдает значения (nextval - 49 .. nextval], поэтому достаточно поставить последовательность на max(id).
+select setval('tasks_seq', greatest((select coalesce(max(id), 0) from tasks), (select last_value from tasks_seq), 1));
+select setval('comments_seq', greatest((select coalesce(max(id), 0) from comments), (select last_value from comments_seq), 1));
+
+alter table tasks add column if not exists version bigint not null default 0;
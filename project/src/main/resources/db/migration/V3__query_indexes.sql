@@ -0,0 +1,18 @@
+-- Индексы под запросы TasksRepository и CommentsRepository; для каждого указан запрос и порядок сортировки.
+-- Проверяются QueryPlanIT (src/loadtest): ни один из этих запросов не должен читать таблицу целиком.
+
+-- findByAuthorId, findFirstKeysetByAuthorId, findKeysetByAuthorIdAfter, countByAuthorId:
+-- where author_id = ? order by priority, id — диапазон индекса уже отсортирован, count читает только индекс.
+create index if not exists idx_tasks_author_priority_id on tasks (author_id, priority, id);
+
+-- То же для исполнителя: findByExecutorId, *KeysetByExecutorId*, countByExecutorId.
+create index if not exists idx_tasks_executor_priority_id on tasks (executor_id, priority, id);
+
+-- findByTitleContaining, *KeysetByTitleContaining*, countByTitleContaining: title like '%...%'
+-- (запасной путь, когда поисковый индекс в памяти выключен или еще не загружен).
+create extension if not exists pg_trgm;
+create index if not exists idx_tasks_title_trgm on tasks using gin (title gin_trgm_ops);
+
+-- findFirstKeysetByTaskId, findKeysetByTaskIdBefore: where task_id = ? order by created_at desc, id desc
+-- (обратный проход индекса); countByTaskId и deleteByTaskId используют тот же префикс task_id.
+create index if not exists idx_comments_task_created_id on comments (task_id, created_at, id);
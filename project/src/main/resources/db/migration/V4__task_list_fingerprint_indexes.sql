@@ -0,0 +1,9 @@
+-- ETag списков задач считается по count(*), sum(id), sum(version) над теми же индексами, что и сами списки.
+-- Версия в INCLUDE позволяет посчитать отпечаток index-only сканированием, не читая строки таблицы.
+-- Новые индексы создаются до удаления старых, чтобы запросы списков не оставались без индекса.
+
+create index if not exists idx_tasks_author_priority_id_v on tasks (author_id, priority, id) include (version);
+drop index if exists idx_tasks_author_priority_id;
+
+create index if not exists idx_tasks_executor_priority_id_v on tasks (executor_id, priority, id) include (version);
+drop index if exists idx_tasks_executor_priority_id;
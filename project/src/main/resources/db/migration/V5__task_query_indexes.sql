@@ -0,0 +1,6 @@
+-- GET /tasks/query: фильтр по статусу и диапазону приоритетов без автора и исполнителя.
+-- (status, priority, id) отдает страницу по статусу в порядке сортировки, (priority, id) — по диапазону
+-- приоритетов и без фильтров; с автором или исполнителем работают индексы из V4, сортировка по id — первичный ключ.
+
+create index if not exists idx_tasks_status_priority_id on tasks (status, priority, id);
+create index if not exists idx_tasks_priority_id on tasks (priority, id);
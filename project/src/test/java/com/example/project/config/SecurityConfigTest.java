@@ -0,0 +1,100 @@
+package com.example.project.config;
+
+import com.example.project.enumiration.Role;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.service.RefreshTokenService;
+import com.example.project.utils.JWTUtils;
+import com.example.project.utils.VerifiedTokenCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.servlet.ServletManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Правила доступа SecurityConfig на настоящей цепочке фильтров: токены выпускаются и проверяются JWTUtils,
+ * Prometheus-эндпоинт подключается автоконфигурацией actuator с настройками из application.properties
+ * (в тестах экспорт метрик по умолчанию выключен, его включает {@link AutoConfigureObservability}).
+ */
+@SpringBootTest(classes = SecurityConfigTest.WebOnly.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+public class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JWTUtils jwtUtils;
+
+    @MockitoBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void prometheus_shouldBeForbiddenWithoutToken() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_shouldBeForbiddenForUser() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token(Role.USER)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void prometheus_shouldBeServedToAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token(Role.ADMIN)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("# TYPE")));
+    }
+
+    private String token(Role role) {
+        return jwtUtils.generateAccessToken(new UserDetailsEntity(1L, "user@example.com", null, role.authorities()));
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            SecurityAutoConfiguration.class,
+            MetricsAutoConfiguration.class,
+            CompositeMeterRegistryAutoConfiguration.class,
+            PrometheusMetricsExportAutoConfiguration.class,
+            EndpointAutoConfiguration.class,
+            WebEndpointAutoConfiguration.class,
+            ManagementContextAutoConfiguration.class,
+            ServletManagementContextAutoConfiguration.class
+    })
+    @Import({SecurityConfig.class, ApplicationConfig.class, JWTUtils.class, VerifiedTokenCache.class})
+    static class WebOnly {
+    }
+}
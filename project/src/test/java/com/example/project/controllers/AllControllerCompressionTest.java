@@ -0,0 +1,98 @@
+package com.example.project.controllers;
+
+import com.example.project.config.WebConfig;
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.service.CommentService;
+import com.example.project.service.TaskService;
+import com.example.project.service.UserService;
+import com.example.project.stream.TaskEventBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Списки задач с ETag на настоящем Tomcat: сжатие (server.compression из application.properties)
+ * и 304 на If-None-Match. MockMvc не проходит через коннектор Tomcat, поэтому сжатие в нем не проверить.
+ */
+@SpringBootTest(classes = AllControllerCompressionTest.WebOnly.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class AllControllerCompressionTest {
+
+    private static final String ETAG = "40-a-5";
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private TaskService taskService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CommentService commentService;
+
+    @MockitoBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void tasksByExecutor_shouldGzipLargeResponseWithETag() throws Exception {
+        List<TaskSummaryDTO> tasks = LongStream.rangeClosed(1, 40)
+                .mapToObj(id -> new TaskSummaryDTO(id, "Prepare release notes #" + id,
+                        "Collect merged changes, group them by component and describe user-visible behaviour.",
+                        TaskStatus.NEW, 1, 2L, 1L, 0L))
+                .toList();
+        when(taskService.tasksByExecutorETag(1L)).thenReturn(ETAG);
+        when(taskService.findTasksByExecutorAfter(1L, null, 40, false))
+                .thenReturn(new CursorPageDTO<>(tasks, null, false, null));
+
+        HttpResponse<byte[]> response = client.send(request().header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals("W/\"" + ETAG + "\"", response.headers().firstValue("ETag").orElse(null));
+        assertTrue(response.body().length < 2048);
+
+        HttpResponse<byte[]> notModified = client.send(request()
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "W/\"" + ETAG + "\"").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(304, notModified.statusCode());
+        verify(taskService, times(1)).findTasksByExecutorAfter(1L, null, 40, false);
+    }
+
+    private HttpRequest.Builder request() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1.0/tasks/executor/cursor?executorId=1&size=40"));
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class})
+    @Import({AllController.class, WebConfig.class})
+    static class WebOnly {
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.project.controllers;
+
+import com.example.project.models.Comment;
+import com.example.project.models.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestExceptionHandlerTest {
+
+    private final RestExceptionHandler handler = new RestExceptionHandler();
+
+    @Test
+    void handleOptimisticLock_shouldNameTheConflictingEntity() {
+        ResponseEntity<Map<String, String>> task = handler.handleOptimisticLock(new ObjectOptimisticLockingFailureException(Task.class, 1L));
+        ResponseEntity<Map<String, String>> comment = handler.handleOptimisticLock(new ObjectOptimisticLockingFailureException(Comment.class, 2L));
+
+        assertEquals(HttpStatus.CONFLICT, task.getStatusCode());
+        assertEquals("Task was modified concurrently, reload it and retry", task.getBody().get("error_message"));
+        assertEquals("Comment was modified concurrently, reload it and retry", comment.getBody().get("error_message"));
+    }
+
+    @Test
+    void handleOptimisticLock_shouldUseNeutralMessageWithoutEntity() {
+        ResponseEntity<Map<String, String>> response = handler.handleOptimisticLock(new OptimisticLockingFailureException("Row was updated"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Resource was modified concurrently, reload it and retry", response.getBody().get("error_message"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.project.controllers;
+
+import com.example.project.dto.CommentDTO;
+import com.example.project.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserControllerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private UserController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new UserController(taskService);
+    }
+
+    @Test
+    void submitCommentToTask_shouldAcceptWithoutWaitingForFlush() throws Exception {
+        when(taskService.submitCommentToTask(1L, 2L, "text")).thenReturn(new CompletableFuture<>());
+
+        ResponseEntity<CommentDTO> response = controller.submitCommentToTask(1L, 2L, "text", false).get();
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    }
+
+    @Test
+    void submitCommentToTask_shouldReturnCreatedWhenWaitingForFlush() throws Exception {
+        CommentDTO saved = new CommentDTO(10L, 1L, 2L, "text", LocalDateTime.now());
+        when(taskService.submitCommentToTask(1L, 2L, "text")).thenReturn(CompletableFuture.completedFuture(saved));
+
+        ResponseEntity<CommentDTO> response = controller.submitCommentToTask(1L, 2L, "text", true).get();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(saved, response.getBody());
+    }
+
+    @Test
+    void submitCommentToTask_shouldReturnFailureOfSynchronousSaveWithoutWaitingForFlush() throws Exception {
+        ResponseStatusException failure = new ResponseStatusException(HttpStatus.CONFLICT, "Write failed");
+        when(taskService.submitCommentToTask(1L, 2L, "text")).thenReturn(CompletableFuture.failedFuture(failure));
+
+        CompletableFuture<ResponseEntity<CommentDTO>> response = controller.submitCommentToTask(1L, 2L, "text", false);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, response::get);
+        assertSame(failure, exception.getCause());
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.project.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRouterTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource first;
+
+    @Mock
+    private DataSource second;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    private ReplicaRouter router;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(first.getConnection()).thenReturn(firstConnection);
+        when(second.getConnection()).thenReturn(secondConnection);
+        router = new ReplicaRouter(primary,
+                List.of(new ReplicaRouter.Replica("replica-1", first), new ReplicaRouter.Replica("replica-2", second)),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getConnection_shouldAlternateReplicasForReadOnlyServiceReads() throws SQLException {
+        readOnlyTransaction();
+        boolean nested = ReplicaRouter.enterReplicaRead();
+        try {
+            assertSame(firstConnection, router.getConnection());
+            assertSame(secondConnection, router.getConnection());
+            assertSame(firstConnection, router.getConnection());
+        } finally {
+            ReplicaRouter.exitReplicaRead(nested);
+        }
+        assertEquals(3, router.getReplicaReads());
+    }
+
+    @Test
+    void getConnection_shouldUsePrimaryForReadOnlyTransactionOutsideServices() throws SQLException {
+        readOnlyTransaction();
+
+        assertSame(primaryConnection, router.getConnection());
+    }
+
+    @Test
+    void getConnection_shouldSkipLaggingAndFailedReplicas() throws SQLException {
+        healthCheck(firstConnection, 30.0);
+        when(second.getConnection()).thenThrow(new SQLException("Connection refused"));
+        router.checkReplicas();
+
+        readOnlyTransaction();
+        boolean nested = ReplicaRouter.enterReplicaRead();
+        try {
+            assertSame(primaryConnection, router.getConnection());
+        } finally {
+            ReplicaRouter.exitReplicaRead(nested);
+        }
+        assertEquals(1, router.getPrimaryReads());
+    }
+
+    @Test
+    void getConnection_shouldFollowOwnWritesToPrimaryAfterCommit() throws SQLException {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user@example.com", null));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertSame(primaryConnection, router.getConnection());
+        List<TransactionSynchronization> writeSynchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        readOnlyTransaction();
+        boolean nested = ReplicaRouter.enterReplicaRead();
+        try {
+            // До коммита изменений на основной базе не видно, и окно еще не началось.
+            assertSame(firstConnection, router.getConnection());
+
+            writeSynchronizations.forEach(TransactionSynchronization::afterCommit);
+            assertSame(primaryConnection, router.getConnection());
+            SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("other@example.com", null));
+            assertSame(secondConnection, router.getConnection());
+        } finally {
+            ReplicaRouter.exitReplicaRead(nested);
+        }
+    }
+
+    @Test
+    void getConnectionWithCredentials_shouldNotBeSupported() {
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(router);
+
+        assertThrows(SQLFeatureNotSupportedException.class, () -> dataSource.getConnection("user", "password"));
+    }
+
+    private static void readOnlyTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    private static void healthCheck(Connection connection, double lagSeconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaRouter.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.project.filter;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.project.enumiration.Role;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.utils.JWTUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class JWTRequestFilterTest {
+
+    @Mock
+    private JWTUtils jwtUtils;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JWTRequestFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new JWTRequestFilter(jwtUtils, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateValidTokenAndContinueChain() throws Exception {
+        PreAuthenticatedAuthenticationToken authentication = new PreAuthenticatedAuthenticationToken(
+                new UserDetailsEntity(1L, "user@example.com", null, Role.USER.authorities()), null, Role.USER.authorities());
+        when(jwtUtils.getAuthentication("valid")).thenReturn(authentication);
+        MockHttpServletRequest request = request("valid");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_shouldAnswerExpiredTokenLikeObjectMapperAndStopChain() throws Exception {
+        when(jwtUtils.getAuthentication("expired")).thenThrow(new TokenExpiredException("The Token has expired", Instant.now()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("expired"), response, filterChain);
+
+        assertForbidden(response, "token expired");
+        verify(filterChain, never()).doFilter(any(), any());
+        assertEquals(1, meterRegistry.get("security.jwt.verification.failures").tag("reason", "TokenExpiredException").counter().count());
+    }
+
+    @Test
+    void doFilter_shouldAnswerInvalidTokenLikeObjectMapperAndStopChain() throws Exception {
+        when(jwtUtils.getAuthentication("forged")).thenThrow(new JWTVerificationException("The Token's Signature resulted invalid"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("forged"), response, filterChain);
+
+        assertForbidden(response, "invalid token");
+        verify(filterChain, never()).doFilter(any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_shouldContinueChainWithoutToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(jwtUtils);
+    }
+
+    /**
+     * Тело сравнивается побайтно с тем, что раньше писал {@code new ObjectMapper().writeValue(out, HashMap)}.
+     */
+    private static void assertForbidden(MockHttpServletResponse response, String message) throws Exception {
+        Map<String, String> error = new HashMap<>();
+        error.put("error_message", message);
+        byte[] expected = new ObjectMapper().writeValueAsBytes(error);
+
+        assertEquals(403, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals(expected.length, response.getContentLength());
+        assertArrayEquals(expected, response.getContentAsByteArray());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
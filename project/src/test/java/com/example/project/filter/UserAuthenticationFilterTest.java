@@ -0,0 +1,63 @@
+package com.example.project.filter;
+
+import com.example.project.service.RefreshTokenService;
+import com.example.project.utils.PasswordHashingOverloadedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserAuthenticationFilterTest {
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private UserAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        filter = new UserAuthenticationFilter(refreshTokenService);
+    }
+
+    @Test
+    void unsuccessfulAuthentication_shouldWriteSameBodyAsBefore() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.unsuccessfulAuthentication(new MockHttpServletRequest(), response, new BadCredentialsException("Bad credentials"));
+
+        assertEquals(403, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertArrayEquals(previousBody("Bad credentials"), response.getContentAsByteArray());
+    }
+
+    @Test
+    void unsuccessfulAuthentication_shouldAnswer503WhenHashingIsOverloaded() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.unsuccessfulAuthentication(new MockHttpServletRequest(), response,
+                new PasswordHashingOverloadedException("Password hashing is overloaded"));
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertArrayEquals(previousBody("Password hashing is overloaded"), response.getContentAsByteArray());
+    }
+
+    /**
+     * Тело, которое фильтр писал до общего ObjectWriter: новый ObjectMapper и HashMap на каждый ответ.
+     */
+    private static byte[] previousBody(String message) throws Exception {
+        Map<String, String> error = new HashMap<>();
+        error.put("error_message", message);
+        return new ObjectMapper().writeValueAsBytes(error);
+    }
+}
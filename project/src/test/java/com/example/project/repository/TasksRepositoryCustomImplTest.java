@@ -0,0 +1,72 @@
+package com.example.project.repository;
+
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskSortKey;
+import com.example.project.enumiration.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TasksRepositoryCustomImplTest {
+
+    private final TasksRepositoryCustomImpl repository = new TasksRepositoryCustomImpl();
+    private EntityManager entityManager;
+    private TypedQuery<TaskSummaryDTO> typedQuery;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        typedQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(anyString(), eq(TaskSummaryDTO.class))).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(anyInt())).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of());
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    void findByQuery_shouldReuseJpqlForSameFilterShape() {
+        repository.findByQuery(new TaskQueryDTO(Set.of(TaskStatus.NEW), 1, null, null, 5L, null, null), null, 11);
+        repository.findByQuery(new TaskQueryDTO(Set.of(TaskStatus.COMPLETED), 4, null, null, 7L, null, null), null, 11);
+
+        ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, times(2)).createQuery(jpql.capture(), eq(TaskSummaryDTO.class));
+        assertSame(jpql.getAllValues().get(0), jpql.getAllValues().get(1));
+        assertTrue(jpql.getValue().contains("t.status in :statuses and t.priority >= :minPriority and t.executor.id = :executorId"));
+        assertTrue(jpql.getValue().endsWith("order by t.priority asc, t.id asc"));
+        verify(typedQuery).setParameter("executorId", 7L);
+        verify(typedQuery, never()).setParameter(eq("authorId"), any());
+        verify(typedQuery, never()).setParameter(eq("title"), any());
+    }
+
+    @Test
+    void findByQuery_shouldStartAfterCursorKeysForSortKey() {
+        repository.findByQuery(new TaskQueryDTO(null, null, null, 1L, null, null, TaskSortKey.ID), new long[]{100L}, 11);
+
+        ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(jpql.capture(), eq(TaskSummaryDTO.class));
+        assertTrue(jpql.getValue().contains("where t.author.id = :authorId and t.id > :afterId order by t.id asc"));
+        verify(typedQuery).setParameter("afterId", 100L);
+        verify(typedQuery, never()).setParameter(eq("afterPriority"), any());
+    }
+
+    @Test
+    void findByQuery_shouldMatchWildcardsInTitleLiterally() {
+        repository.findByQuery(new TaskQueryDTO(null, null, null, null, null, "100%_Done\\", null), null, 11);
+
+        ArgumentCaptor<String> jpql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createQuery(jpql.capture(), eq(TaskSummaryDTO.class));
+        assertTrue(jpql.getValue().contains("t.title ilike concat('%', :title, '%') escape '\\'"));
+        verify(typedQuery).setParameter("title", "100\\%\\_Done\\\\");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.project.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingListTest {
+
+    @Test
+    void add_shouldKeepIdsSortedAndUnique() {
+        PostingList ids = PostingList.of(5L).add(9L).add(1L).add(7L).add(5L);
+
+        assertArrayEquals(new long[]{1L, 5L, 7L, 9L}, toArray(ids));
+    }
+
+    @Test
+    void add_shouldNotChangePreviousVersions() {
+        PostingList first = PostingList.of(1L).add(2L);
+        PostingList appended = first.add(3L);
+        PostingList inserted = appended.add(0L);
+        PostingList removed = inserted.remove(2L);
+
+        assertArrayEquals(new long[]{1L, 2L}, toArray(first));
+        assertArrayEquals(new long[]{1L, 2L, 3L}, toArray(appended));
+        assertArrayEquals(new long[]{0L, 1L, 2L, 3L}, toArray(inserted));
+        assertArrayEquals(new long[]{0L, 1L, 3L}, toArray(removed));
+        assertFalse(first.contains(3L));
+    }
+
+    @Test
+    void remove_shouldReturnNullWhenLastIdRemoved() {
+        PostingList ids = PostingList.of(4L);
+
+        assertSame(ids, ids.remove(5L));
+        assertNull(ids.remove(4L));
+    }
+
+    @Test
+    void trimmed_shouldKeepContent() {
+        PostingList ids = PostingList.of(1L).add(2L).add(3L).add(4L).add(5L);
+
+        assertArrayEquals(toArray(ids), toArray(ids.trimmed()));
+    }
+
+    private static long[] toArray(PostingList ids) {
+        long[] result = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.project.search;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.event.TaskChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSearchIndexTest {
+
+    private TaskSearchIndex taskSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        taskSearchIndex = new TaskSearchIndex();
+        taskSearchIndex.index(1L, 0, "Fix login page", "Users cannot sign in");
+        taskSearchIndex.index(2L, 0, "Login audit", "Store every login attempt");
+        taskSearchIndex.index(3L, 0, "Release notes", "Mention the new login flow");
+        taskSearchIndex.index(4L, 0, "Refactor billing", "No relation");
+        taskSearchIndex.markReady();
+    }
+
+    @Test
+    void search_shouldRankTitlePrefixThenTitleThenDescription() {
+        Page<Long> hits = taskSearchIndex.search("login", PageRequest.of(0, 10)).orElseThrow();
+
+        assertEquals(List.of(2L, 1L, 3L), hits.getContent());
+        assertEquals(3, hits.getTotalElements());
+    }
+
+    @Test
+    void search_shouldPaginateRankedHits() {
+        Page<Long> hits = taskSearchIndex.search("login", PageRequest.of(1, 2)).orElseThrow();
+
+        assertEquals(List.of(3L), hits.getContent());
+        assertEquals(3, hits.getTotalElements());
+    }
+
+    @Test
+    void index_shouldReplaceAndRemoveDocuments() {
+        taskSearchIndex.index(4L, 1, "Login for billing", "");
+        taskSearchIndex.remove(2L, 0);
+
+        Page<Long> hits = taskSearchIndex.search("login", PageRequest.of(0, 10)).orElseThrow();
+
+        assertEquals(List.of(4L, 1L, 3L), hits.getContent());
+        assertTrue(taskSearchIndex.search("audit", PageRequest.of(0, 10)).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void search_shouldDeclineShortQueries() {
+        Optional<Page<Long>> hits = taskSearchIndex.search("lo", PageRequest.of(0, 10));
+
+        assertTrue(hits.isEmpty());
+    }
+
+    @Test
+    void markReady_shouldApplyEventsReceivedDuringLoad() {
+        TaskSearchIndex loading = new TaskSearchIndex();
+        ReflectionTestUtils.setField(loading, "enabled", true);
+        loading.startLoading();
+
+        // Задача 5 удалена, а задача 6 переименована, пока снимок еще читался со старыми данными.
+        loading.onTaskChanged(TaskChangedEvent.deleted(summary(5L, 0, "Invoice export")));
+        loading.onTaskChanged(TaskChangedEvent.updated(summary(6L, 0, "Invoice import"), summary(6L, 1, "Payroll import")));
+        loading.index(5L, 0, "Invoice export", null);
+        loading.index(6L, 0, "Invoice import", null);
+        assertTrue(loading.search("invoice", PageRequest.of(0, 10)).isEmpty());
+
+        loading.markReady();
+
+        assertTrue(loading.search("invoice", PageRequest.of(0, 10)).orElseThrow().isEmpty());
+        assertEquals(List.of(6L), loading.search("PAYROLL", PageRequest.of(0, 10)).orElseThrow().getContent());
+    }
+
+    @Test
+    void onTaskChanged_shouldIgnoreEventsOlderThanAppliedVersion() {
+        ReflectionTestUtils.setField(taskSearchIndex, "enabled", true);
+
+        // Коммиты версий 1 и 2 задачи 4 прошли в разных потоках, и событие версии 2 пришло первым.
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(summary(4L, 1, "Invoice billing"), summary(4L, 2, "Payroll billing")));
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(summary(4L, 0, "Refactor billing"), summary(4L, 1, "Invoice billing")));
+        // Задача 2 удалена в версии 3, а ее более раннее изменение пришло после удаления.
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.deleted(summary(2L, 3, "Login audit")));
+        taskSearchIndex.onTaskChanged(TaskChangedEvent.updated(summary(2L, 1, "Login audit"), summary(2L, 2, "Login audit v2")));
+
+        assertEquals(List.of(4L), taskSearchIndex.search("payroll", PageRequest.of(0, 10)).orElseThrow().getContent());
+        assertTrue(taskSearchIndex.search("invoice", PageRequest.of(0, 10)).orElseThrow().isEmpty());
+        assertTrue(taskSearchIndex.search("audit", PageRequest.of(0, 10)).orElseThrow().isEmpty());
+    }
+
+    private static TaskSummaryDTO summary(Long id, long version, String title) {
+        return new TaskSummaryDTO(id, title, null, TaskStatus.NEW, 1, 1L, null, version);
+    }
+}
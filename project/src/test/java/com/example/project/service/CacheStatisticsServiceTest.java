@@ -0,0 +1,78 @@
+package com.example.project.service;
+
+import com.example.project.dto.CacheRegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CacheStatisticsServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    private CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        cacheStatisticsService = new CacheStatisticsService(entityManagerFactory);
+    }
+
+    @Test
+    void getSecondLevelCacheStatistics_shouldReportEveryRegionSortedByName() {
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"users", "tasks", "users-natural-id"});
+        CacheRegionStatistics users = region(120, 3, 5, 40);
+        CacheRegionStatistics tasks = region(7, 2, 9, 11);
+        CacheRegionStatistics naturalIds = region(80, 1, 4, 40);
+        when(statistics.getCacheRegionStatistics("users")).thenReturn(users);
+        when(statistics.getCacheRegionStatistics("tasks")).thenReturn(tasks);
+        when(statistics.getCacheRegionStatistics("users-natural-id")).thenReturn(naturalIds);
+
+        List<CacheRegionStatsDTO> result = cacheStatisticsService.getSecondLevelCacheStatistics();
+
+        assertEquals(List.of(
+                new CacheRegionStatsDTO("tasks", 7, 2, 9, 11),
+                new CacheRegionStatsDTO("users", 120, 3, 5, 40),
+                new CacheRegionStatsDTO("users-natural-id", 80, 1, 4, 40)
+        ), result);
+    }
+
+    @Test
+    void getSecondLevelCacheStatistics_shouldSkipRegionsWithoutStatistics() {
+        when(statistics.getSecondLevelCacheRegionNames()).thenReturn(new String[]{"tasks", "removed"});
+        CacheRegionStatistics tasks = region(1, 1, 1, 1);
+        when(statistics.getCacheRegionStatistics("tasks")).thenReturn(tasks);
+        when(statistics.getCacheRegionStatistics("removed")).thenReturn(null);
+
+        List<CacheRegionStatsDTO> result = cacheStatisticsService.getSecondLevelCacheStatistics();
+
+        assertEquals(List.of(new CacheRegionStatsDTO("tasks", 1, 1, 1, 1)), result);
+    }
+
+    private static CacheRegionStatistics region(long hits, long misses, long puts, long elements) {
+        CacheRegionStatistics region = mock(CacheRegionStatistics.class);
+        when(region.getHitCount()).thenReturn(hits);
+        when(region.getMissCount()).thenReturn(misses);
+        when(region.getPutCount()).thenReturn(puts);
+        when(region.getElementCountInMemory()).thenReturn(elements);
+        return region;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.project.service;
+
+import com.example.project.dto.CommentDTO;
+import com.example.project.models.Comment;
+import com.example.project.repository.TasksRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CommentIngestionServiceTest {
+
+    @Mock
+    private TasksRepository tasksRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private CommentIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        when(tasksRepository.existsById(1L)).thenReturn(true);
+
+        service = new CommentIngestionService(tasksRepository, eventPublisher, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "batchSize", 3);
+        ReflectionTestUtils.setField(service, "flushInterval", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void submit_shouldRejectUnknownTask() {
+        service.init();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.submit(2L, 1L, "Comment"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void submit_shouldSaveSynchronouslyWhenDisabled() throws Exception {
+        service.init();
+
+        CompletableFuture<CommentDTO> saved = service.submit(1L, 1L, "Comment");
+
+        assertTrue(saved.isDone());
+        assertEquals("Comment", saved.get().content());
+        verify(entityManager).persist(any(Comment.class));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void submit_shouldGroupQueuedCommentsIntoOneTransaction() throws Exception {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        service.init();
+
+        List<CompletableFuture<CommentDTO>> saved = List.of(
+                service.submit(1L, 1L, "First"),
+                service.submit(1L, 1L, "Second"),
+                service.submit(1L, 1L, "Third"));
+
+        CompletableFuture.allOf(saved.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertEquals("Third", saved.get(2).get().content());
+        verify(entityManager, times(3)).persist(any(Comment.class));
+        verify(transactionManager, times(1)).commit(any());
+        verify(tasksRepository, times(1)).findSummariesByIdIn(any());
+    }
+}
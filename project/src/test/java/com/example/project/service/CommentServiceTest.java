@@ -1,5 +1,7 @@
 package com.example.project.service;
 
+import com.example.project.dto.CommentDTO;
+import com.example.project.dto.CursorPageDTO;
 import com.example.project.models.Comment;
 import com.example.project.models.Task;
 import com.example.project.models.User;
@@ -10,9 +12,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -61,4 +66,28 @@ public class CommentServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> commentService.addComments(taskId, commentText, executor));
     }
+
+    @Test
+    void findComments_shouldReturnCursorForNextPage() {
+        Long taskId = 1L;
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+        List<CommentDTO> rows = List.of(
+                new CommentDTO(3L, taskId, 2L, "third", createdAt.plusMinutes(2)),
+                new CommentDTO(2L, taskId, 2L, "second", createdAt),
+                new CommentDTO(1L, taskId, 2L, "first", createdAt.minusMinutes(1)));
+        when(commentsRepository.findFirstKeysetByTaskId(eq(taskId), any(Pageable.class))).thenReturn(rows);
+
+        CursorPageDTO<CommentDTO> page = commentService.findComments(taskId, null, 2);
+
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+
+        when(tasksRepository.existsById(taskId)).thenReturn(true);
+        CursorPageDTO<CommentDTO> last = commentService.findComments(taskId, page.nextCursor(), 2);
+
+        assertTrue(last.content().isEmpty());
+        assertFalse(last.hasNext());
+
+        verify(commentsRepository).findKeysetByTaskIdBefore(eq(taskId), eq(createdAt), eq(2L), any(Pageable.class));
+    }
 }
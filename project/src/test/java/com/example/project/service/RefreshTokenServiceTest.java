@@ -0,0 +1,114 @@
+package com.example.project.service;
+
+import com.example.project.dto.TokenPairDTO;
+import com.example.project.enumiration.Role;
+import com.example.project.models.User;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.repository.UserRepository;
+import com.example.project.utils.JWTUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private JWTUtils jwtUtils;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private final UserDetailsEntity user = new UserDetailsEntity(1L, "user@example.com", "hash", Role.USER.authorities());
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jwtUtils.generateAccessToken(any())).thenReturn("access");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(storedUser(Role.USER)));
+
+        refreshTokenService = new RefreshTokenService(Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC), jwtUtils, userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiredTime", Duration.ofDays(30));
+        ReflectionTestUtils.setField(refreshTokenService, "bloomExpectedInsertions", 1000L);
+        ReflectionTestUtils.setField(refreshTokenService, "bloomFalsePositiveProbability", 0.01);
+        ReflectionTestUtils.invokeMethod(refreshTokenService, "init");
+    }
+
+    @Test
+    void refresh_shouldRotateToken() {
+        TokenPairDTO issued = refreshTokenService.issue(user);
+
+        TokenPairDTO refreshed = refreshTokenService.refresh(issued.refreshToken());
+
+        assertEquals("access", refreshed.accessToken());
+        assertNotEquals(issued.refreshToken(), refreshed.refreshToken());
+        verify(jwtUtils).generateAccessToken(argThat(principal -> principal.getPassword() == null
+                && principal.getId().equals(1L)));
+    }
+
+    @Test
+    void refresh_shouldRevokeFamilyWhenRotatedTokenIsReused() {
+        TokenPairDTO issued = refreshTokenService.issue(user);
+        TokenPairDTO refreshed = refreshTokenService.refresh(issued.refreshToken());
+
+        ResponseStatusException reuse = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.refresh(issued.refreshToken()));
+        assertEquals(HttpStatus.UNAUTHORIZED, reuse.getStatusCode());
+
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh(refreshed.refreshToken()));
+    }
+
+    @Test
+    void refresh_shouldUseCurrentRole() {
+        TokenPairDTO issued = refreshTokenService.issue(user);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(storedUser(Role.ADMIN)));
+
+        refreshTokenService.refresh(issued.refreshToken());
+
+        verify(jwtUtils).generateAccessToken(argThat(principal -> principal.getAuthorities().equals(Role.ADMIN.authorities())));
+    }
+
+    @Test
+    void refresh_shouldFailForDeletedUser() {
+        TokenPairDTO issued = refreshTokenService.issue(user);
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.refresh(issued.refreshToken()));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        verify(jwtUtils, times(1)).generateAccessToken(any());
+    }
+
+    @Test
+    void refresh_shouldRejectRevokedToken() {
+        TokenPairDTO issued = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(issued.refreshToken());
+
+        assertThrows(ResponseStatusException.class, () -> refreshTokenService.refresh(issued.refreshToken()));
+    }
+
+    private static User storedUser(Role role) {
+        User stored = new User();
+        stored.setId(1L);
+        stored.setEmail("user@example.com");
+        stored.setPassword("hash");
+        stored.setRole(role);
+        return stored;
+    }
+}
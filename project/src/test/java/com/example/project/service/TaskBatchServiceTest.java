@@ -0,0 +1,77 @@
+package com.example.project.service;
+
+import com.example.project.dto.TaskBatchItemDTO;
+import com.example.project.dto.TaskBatchResultDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.models.Task;
+import com.example.project.models.User;
+import com.example.project.repository.TasksRepository;
+import com.example.project.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskBatchServiceTest {
+
+    @InjectMocks
+    private TaskBatchService taskBatchService;
+
+    @Mock
+    private TasksRepository tasksRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void saveAll_shouldResolveUsersOnceAndReportEachItem() {
+        User user = new User();
+        user.setId(1L);
+        Task existing = new Task();
+        existing.setId(7L);
+        existing.setTitle("Old title");
+
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(user));
+        when(tasksRepository.findAllById(anyIterable())).thenReturn(List.of(existing));
+        when(tasksRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskBatchResultDTO> results = taskBatchService.saveAll(List.of(
+                item(null, "New task", 1L, 1L),
+                item(7L, "Renamed", null, null),
+                item(null, "Unknown author", 99L, 1L)
+        ));
+
+        assertEquals(TaskBatchResultDTO.Status.CREATED, results.get(0).status());
+        assertEquals(TaskBatchResultDTO.Status.UPDATED, results.get(1).status());
+        assertEquals("Renamed", existing.getTitle());
+        assertEquals(TaskBatchResultDTO.Status.FAILED, results.get(2).status());
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(tasksRepository, times(1)).saveAll(argThat(tasks -> ((List<?>) tasks).size() == 2));
+    }
+
+    private TaskBatchItemDTO item(Long id, String title, Long authorId, Long executorId) {
+        TaskBatchItemDTO item = new TaskBatchItemDTO();
+        item.setId(id);
+        item.setTitle(title);
+        item.setAuthorId(authorId);
+        item.setExecutorId(executorId);
+        item.setStatus(TaskStatus.NEW);
+        item.setPriority(1);
+        return item;
+    }
+}
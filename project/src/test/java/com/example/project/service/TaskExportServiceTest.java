@@ -0,0 +1,108 @@
+package com.example.project.service;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.repository.TasksRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskExportServiceTest {
+
+    @Mock
+    private TasksRepository tasksRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskExportService taskExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        taskExportService = new TaskExportService(tasksRepository, objectMapper);
+    }
+
+    @Test
+    void exportTasks_shouldWriteOneObjectPerLine() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(tasksRepository.streamAllSummaries()).thenReturn(tasks(3).onClose(() -> closed.set(true)));
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        taskExportService.exportTasks(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode task = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1, task.get("id").asLong());
+            assertEquals("Task " + (i + 1), task.get("title").asText());
+        }
+        assertTrue(closed.get());
+        assertFalse(out.closed);
+    }
+
+    @Test
+    void exportTasks_shouldFlushEveryThousandRows() throws IOException {
+        when(tasksRepository.streamAllSummaries()).thenReturn(tasks(2500));
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        taskExportService.exportTasks(out);
+
+        // Поток сбрасывается после 1000 и 2000 строк и в конце выгрузки; до сброса строки только в буфере генератора.
+        assertEquals(List.of(1000L, 2000L, 2500L), out.rowsAtFlush);
+        assertEquals(2500, out.toString(StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void exportTasks_shouldWriteNothingWhenThereAreNoTasks() throws IOException {
+        when(tasksRepository.streamAllSummaries()).thenReturn(Stream.empty());
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        taskExportService.exportTasks(out);
+
+        assertEquals(0, out.size());
+    }
+
+    private static Stream<TaskSummaryDTO> tasks(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> new TaskSummaryDTO(id, "Task " + id, "Description", TaskStatus.NEW, 1, 1L, 2L, 0));
+    }
+
+    /**
+     * Запоминает, сколько объектов уже дошло до потока на момент каждого flush.
+     */
+    private static final class RecordingOutputStream extends ByteArrayOutputStream {
+        private final List<Long> rowsAtFlush = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void flush() {
+            long rows = toString(StandardCharsets.UTF_8).chars().filter(c -> c == '}').count();
+            if (rowsAtFlush.isEmpty() || rowsAtFlush.get(rowsAtFlush.size() - 1) != rows) {
+                rowsAtFlush.add(rows);
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
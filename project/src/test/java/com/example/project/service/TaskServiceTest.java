@@ -1,23 +1,38 @@
 package com.example.project.service;
 
+import com.example.project.dto.CursorPageDTO;
+import com.example.project.dto.TaskPatchDTO;
+import com.example.project.dto.TaskQueryDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskSortKey;
 import com.example.project.enumiration.TaskStatus;
 import com.example.project.models.Task;
 import com.example.project.models.User;
+import com.example.project.models.UserDetailsEntity;
+import com.example.project.repository.TaskSetFingerprint;
 import com.example.project.repository.TasksRepository;
 import com.example.project.repository.UserRepository;
+import com.example.project.search.TaskSearchIndex;
+import com.example.project.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.mockito.Mockito.*;
 
 import java.nio.file.AccessDeniedException;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,6 +47,15 @@ public class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private User executor;
 
@@ -77,6 +101,7 @@ public class TaskServiceTest {
 
         taskService.deleteTask(taskId);
 
+        verify(commentService).deleteByTask(taskId);
         verify(tasksRepository, times(1)).delete(task);
     }
 
@@ -88,4 +113,112 @@ public class TaskServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> taskService.deleteTask(taskId));
     }
+
+    @Test
+    void findTasksByExecutorAfter_shouldReturnNextCursorWhenMoreTasksExist() {
+        Long executorId = 1L;
+        List<TaskSummaryDTO> tasks = List.of(summary(10L, 1), summary(11L, 1), summary(12L, 2));
+
+        when(tasksRepository.findFirstKeysetByExecutorId(eq(executorId), any(Pageable.class))).thenReturn(tasks);
+
+        CursorPageDTO<TaskSummaryDTO> page = taskService.findTasksByExecutorAfter(executorId, null, 2, false);
+
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+        assertNull(page.totalElements());
+        verify(tasksRepository, never()).countByExecutorId(executorId);
+
+        taskService.findTasksByExecutorAfter(executorId, page.nextCursor(), 2, false);
+
+        verify(tasksRepository).findKeysetByExecutorIdAfter(eq(executorId), eq(1), eq(11L), any(Pageable.class));
+    }
+
+    @Test
+    void patchTaskAdmin_shouldReturnConflictOnStaleVersion() {
+        Long taskId = 1L;
+        TaskPatchDTO patch = new TaskPatchDTO();
+        patch.setStatus(TaskStatus.COMPLETED);
+        patch.setVersion(3L);
+
+        when(tasksRepository.patchStatusAndPriority(taskId, 3L, true, "COMPLETED", false, 0)).thenReturn(List.of());
+        when(tasksRepository.existsById(taskId)).thenReturn(true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> taskService.patchTaskAdmin(taskId, patch));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        verify(tasksRepository, never()).findById(taskId);
+    }
+
+    @Test
+    void updateTaskStatus_shouldAuthorizeFromTokenPrincipalWithoutUserLookup() throws AccessDeniedException {
+        Long taskId = 1L;
+        Long executorId = 5L;
+
+        when(authentication.getPrincipal()).thenReturn(new UserDetailsEntity(executorId, "executorUsername", null, Set.of()));
+        when(tasksRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(tasksRepository.saveAndFlush(task)).thenReturn(task);
+
+        taskService.updateTaskStatus(taskId, executorId, TaskStatus.IN_PROGRESS);
+
+        verify(userRepository, never()).findByEmail(anyString());
+        assertThrows(AccessDeniedException.class, () -> taskService.updateTaskStatus(taskId, 6L, TaskStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void tasksByAuthorETag_shouldChangeWhenAnyTaskVersionChanges() {
+        Long authorId = 2L;
+        TaskSetFingerprint before = fingerprint(3, 6, 0);
+        TaskSetFingerprint after = fingerprint(3, 6, 1);
+        when(tasksRepository.fingerprintByAuthorId(authorId)).thenReturn(before, before, after);
+
+        String eTag = taskService.tasksByAuthorETag(authorId);
+
+        assertEquals(eTag, taskService.tasksByAuthorETag(authorId));
+        assertNotEquals(eTag, taskService.tasksByAuthorETag(authorId));
+    }
+
+    @Test
+    void taskDetailsETag_shouldReturnNullWhenTaskNotFound() {
+        when(tasksRepository.fingerprintDetailsById(1L)).thenReturn(Optional.empty());
+
+        assertNull(taskService.taskDetailsETag(1L));
+    }
+
+    @Test
+    void queryTasks_shouldUseIdCursorWhenSortedById() {
+        TaskQueryDTO query = new TaskQueryDTO(Set.of(TaskStatus.NEW), null, null, null, 1L, " ", TaskSortKey.ID);
+        List<TaskSummaryDTO> tasks = List.of(summary(10L, 3), summary(11L, 1), summary(12L, 2));
+        when(tasksRepository.findByQuery(query, null, 3)).thenReturn(tasks);
+
+        CursorPageDTO<TaskSummaryDTO> page = taskService.queryTasks(query, null, 2, false);
+
+        assertNull(query.title());
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+        assertArrayEquals(new long[]{11L}, KeysetCursor.decode(page.nextCursor(), 1));
+        verify(tasksRepository, never()).countByQuery(any());
+    }
+
+    @Test
+    void queryTasks_shouldRejectInvertedPriorityRange() {
+        TaskQueryDTO query = new TaskQueryDTO(null, 5, 1, null, null, null, null);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> taskService.queryTasks(query, null, 10, false));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verify(tasksRepository, never()).findByQuery(any(), any(), anyInt());
+    }
+
+    private TaskSetFingerprint fingerprint(long count, long idSum, long versionSum) {
+        TaskSetFingerprint fingerprint = mock(TaskSetFingerprint.class);
+        when(fingerprint.getCount()).thenReturn(count);
+        when(fingerprint.getIdSum()).thenReturn(idSum);
+        when(fingerprint.getVersionSum()).thenReturn(versionSum);
+        return fingerprint;
+    }
+
+    private TaskSummaryDTO summary(Long id, int priority) {
+        return new TaskSummaryDTO(id, "Task " + id, null, TaskStatus.NEW, priority, 2L, 1L, 0L);
+    }
 }
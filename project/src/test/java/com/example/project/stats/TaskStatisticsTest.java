@@ -0,0 +1,143 @@
+package com.example.project.stats;
+
+import com.example.project.dto.TaskStatisticsDTO;
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.event.TaskChangedEvent;
+import com.example.project.repository.TaskCountRow;
+import com.example.project.repository.TasksRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskStatisticsTest {
+
+    @Mock
+    private TasksRepository tasksRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        List<TaskCountRow> rows = List.of(
+                row(TaskStatus.NEW, 10L, 1, 3),
+                row(TaskStatus.IN_PROGRESS, 10L, 2, 1),
+                row(null, null, 1, 2));
+        when(tasksRepository.countGroupedByStatusExecutorPriority()).thenReturn(rows);
+
+        statistics = new TaskStatistics(tasksRepository, transactionManager, meterRegistry);
+        statistics.init();
+        statistics.load();
+    }
+
+    @Test
+    void snapshot_shouldBeSeededFromGroupBy() {
+        TaskStatisticsDTO snapshot = statistics.snapshot();
+
+        assertEquals(6, snapshot.total());
+        assertEquals(Map.of("NEW", 3L, "IN_PROGRESS", 1L, TaskStatistics.NO_STATUS, 2L), snapshot.byStatus());
+        assertEquals(Map.of(1, 5L, 2, 1L), snapshot.byPriority());
+        assertEquals(10L, snapshot.byExecutor().get(0).executorId());
+        assertEquals(4, snapshot.byExecutor().get(0).total());
+        assertNull(snapshot.byExecutor().get(1).executorId());
+    }
+
+    @Test
+    void onTaskChanged_shouldMoveCounts() {
+        statistics.onTaskChanged(TaskChangedEvent.updated(task(TaskStatus.NEW, 10L, 1), task(TaskStatus.COMPLETED, 20L, 1)));
+        statistics.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 20L, 3)));
+        statistics.onTaskChanged(TaskChangedEvent.deleted(task(TaskStatus.IN_PROGRESS, 10L, 2)));
+
+        TaskStatisticsDTO snapshot = statistics.snapshot();
+        assertEquals(6, snapshot.total());
+        assertEquals(Map.of("NEW", 3L, "COMPLETED", 1L, TaskStatistics.NO_STATUS, 2L), snapshot.byStatus());
+        assertEquals(Map.of(1, 5L, 3, 1L), snapshot.byPriority());
+        assertEquals(Map.of("NEW", 2L), snapshot.byExecutor().get(0).byStatus());
+        assertEquals(Map.of("NEW", 1L, "COMPLETED", 1L), snapshot.byExecutor().get(1).byStatus());
+    }
+
+    @Test
+    void reconcile_shouldReplaceDriftedCounters() {
+        statistics.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 10L, 1)));
+
+        statistics.reconcile();
+
+        assertEquals(6, statistics.snapshot().total());
+        assertEquals(1, meterRegistry.get("task.stats.reconcile.drift").counter().count());
+    }
+
+    @Test
+    void reconcile_shouldApplyEventsArrivingDuringQuery() {
+        List<TaskCountRow> rows = tasksRepository.countGroupedByStatusExecutorPriority();
+        when(tasksRepository.countGroupedByStatusExecutorPriority()).thenAnswer(invocation -> {
+            // Задача создана после снимка запроса: в результате GROUP BY ее еще нет.
+            statistics.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 10L, 1)));
+            return rows;
+        });
+
+        statistics.reconcile();
+
+        assertEquals(7, statistics.snapshot().total());
+        assertEquals(0, meterRegistry.get("task.stats.reconcile.drift").counter().count());
+    }
+
+    @Test
+    void load_shouldApplyEventsArrivingDuringQuery() {
+        List<TaskCountRow> rows = tasksRepository.countGroupedByStatusExecutorPriority();
+        TaskStatistics fresh = new TaskStatistics(tasksRepository, transactionManager, meterRegistry);
+        fresh.init();
+        // Событие до загрузки уже отражено в результате запроса и не должно учитываться второй раз.
+        fresh.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 10L, 1)));
+        when(tasksRepository.countGroupedByStatusExecutorPriority()).thenAnswer(invocation -> {
+            fresh.onTaskChanged(TaskChangedEvent.deleted(task(TaskStatus.NEW, 10L, 1)));
+            return rows;
+        });
+
+        fresh.load();
+
+        assertEquals(5, fresh.snapshot().total());
+        assertEquals(Map.of("IN_PROGRESS", 1L, "NEW", 2L, TaskStatistics.NO_STATUS, 2L), fresh.snapshot().byStatus());
+    }
+
+    @Test
+    void reconcile_shouldKeepEventsWhenQueryFails() {
+        when(tasksRepository.countGroupedByStatusExecutorPriority()).thenAnswer(invocation -> {
+            statistics.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 10L, 1)));
+            throw new IllegalStateException("database is down");
+        });
+
+        assertThrows(IllegalStateException.class, statistics::reconcile);
+        statistics.onTaskChanged(TaskChangedEvent.created(task(TaskStatus.NEW, 10L, 1)));
+
+        assertEquals(8, statistics.snapshot().total());
+    }
+
+    private static TaskSummaryDTO task(TaskStatus status, Long executorId, int priority) {
+        return new TaskSummaryDTO(1L, "Task", "Description", status, priority, 1L, executorId, 0);
+    }
+
+    private static TaskCountRow row(TaskStatus status, Long executorId, int priority, long count) {
+        TaskCountRow row = mock(TaskCountRow.class);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getExecutorId()).thenReturn(executorId);
+        when(row.getPriority()).thenReturn(priority);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.project.stream;
+
+import com.example.project.dto.TaskSummaryDTO;
+import com.example.project.enumiration.TaskStatus;
+import com.example.project.event.TaskChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TaskEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new TaskEventBroadcaster(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(broadcaster, "replayBufferSize", 8);
+        ReflectionTestUtils.setField(broadcaster, "subscriberQueueCapacity", 1);
+        ReflectionTestUtils.setField(broadcaster, "timeout", Duration.ofMinutes(1));
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldDisconnectSubscriberWhenReplayOverflows() throws Exception {
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task(1L, 10L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task(2L, 10L)));
+
+        broadcaster.subscribe(10L, null, 0L);
+
+        awaitDropped(1);
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void subscribe_shouldSkipOtherExecutorsInReplay() throws Exception {
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task(1L, 10L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task(2L, 20L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.created(task(3L, 20L)));
+
+        broadcaster.subscribe(10L, null, 0L);
+
+        Thread.sleep(100);
+        assertEquals(0, dropped());
+        assertEquals(1, subscribers());
+    }
+
+    private void awaitDropped(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (dropped() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, dropped());
+    }
+
+    private double dropped() {
+        return meterRegistry.get("task.stream.dropped").functionCounter().count();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("task.stream.subscribers").gauge().value();
+    }
+
+    private static TaskSummaryDTO task(Long id, Long executorId) {
+        return new TaskSummaryDTO(id, "Task " + id, "Description", TaskStatus.NEW, 1, 1L, executorId, 0);
+    }
+}
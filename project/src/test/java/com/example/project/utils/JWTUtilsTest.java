@@ -0,0 +1,89 @@
+package com.example.project.utils;
+
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.example.project.enumiration.Role;
+import com.example.project.models.UserDetailsEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JWTUtilsTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T12:00:00Z"));
+    private JWTUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(clock);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        jwtUtils = new JWTUtils(clock, cache);
+        ReflectionTestUtils.setField(jwtUtils, "secret", "secret");
+        ReflectionTestUtils.setField(jwtUtils, "accessExpiredTime", Duration.ofMinutes(10));
+        jwtUtils.init();
+    }
+
+    @Test
+    void getAuthentication_shouldRejectTokenOnceClockPassesExpiry() {
+        String token = jwtUtils.generateAccessToken(new UserDetailsEntity(1L, "user@example.com", null, Set.of(new SimpleGrantedAuthority("USER"))));
+        assertNotNull(jwtUtils.getAuthentication(token));
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThrows(TokenExpiredException.class, () -> jwtUtils.getAuthentication(token));
+        assertFalse(jwtUtils.isValidToken(token));
+    }
+
+    @Test
+    void getAuthentication_shouldBuildNewAuthenticationForCachedToken() {
+        String token = jwtUtils.generateAccessToken(new UserDetailsEntity(1L, "user@example.com", null, Role.USER.authorities()));
+        PreAuthenticatedAuthenticationToken first = jwtUtils.getAuthentication(token);
+        first.setAuthenticated(false);
+        first.setDetails("changed by another request");
+
+        PreAuthenticatedAuthenticationToken second = jwtUtils.getAuthentication(token);
+
+        assertNotSame(first, second);
+        assertTrue(second.isAuthenticated());
+        assertNull(second.getDetails());
+        assertEquals(1L, ((UserDetailsEntity) second.getPrincipal()).getId());
+        assertEquals(Role.USER.authorities(), Set.copyOf(second.getAuthorities()));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}